@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.microprofile.config.WildFlyConfig;
+import org.wildfly.microprofile.config.WildFlyConfigBuilder;
+
+/**
+ * Parsing of boolean values by the built-in converter.
+ *
+ * See {@link ConverterBenchmark#primitiveInt()} and {@link ConverterBenchmark#integer()} for the numeric values.
+ *
+ * {@link #equalsIgnoreCaseChain()} is the way booleans used to be parsed and serves as the baseline
+ * of {@link #booleanConverter()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BooleanParsingBenchmark {
+
+    @Param({"true", "OUI", "false", "0"})
+    String booleanValue;
+
+    private WildFlyConfig config;
+
+    @Setup
+    public void setup() {
+        config = (WildFlyConfig) new WildFlyConfigBuilder().build();
+    }
+
+    @Benchmark
+    public boolean equalsIgnoreCaseChain() {
+        String value = booleanValue;
+        return "TRUE".equalsIgnoreCase(value)
+                || "1".equalsIgnoreCase(value)
+                || "YES".equalsIgnoreCase(value)
+                || "Y".equalsIgnoreCase(value)
+                || "ON".equalsIgnoreCase(value)
+                || "JA".equalsIgnoreCase(value)
+                || "J".equalsIgnoreCase(value)
+                || "OUI".equalsIgnoreCase(value);
+    }
+
+    @Benchmark
+    public Boolean booleanConverter() {
+        return config.convert(booleanValue, Boolean.class);
+    }
+}
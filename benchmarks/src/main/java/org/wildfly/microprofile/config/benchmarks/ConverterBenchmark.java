@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.benchmarks;
+
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.microprofile.config.PropertiesConfigSource;
+import org.wildfly.microprofile.config.WildFlyConfig;
+import org.wildfly.microprofile.config.WildFlyConfigBuilder;
+
+/**
+ * Conversion of property values with the built-in converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    /**
+     * Size of the conversion cache, 0 converts the value on every lookup.
+     */
+    @Param({"0", "256"})
+    int conversionCache;
+
+    private WildFlyConfig config;
+
+    @Setup
+    public void setup() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("string", "foo");
+        properties.put("boolean", "yes");
+        properties.put("int", "12345");
+        properties.put("long", "1234567890123");
+        properties.put("float", "3.14");
+        properties.put("double", "2.718281828");
+        properties.put("duration", "PT15M");
+        properties.put("localDate", "2017-12-01");
+        properties.put("localTime", "10:15:30");
+        properties.put("localDateTime", "2017-12-01T10:15:30");
+        properties.put("instant", "2017-12-01T10:15:30.00Z");
+        properties.put("offsetDateTime", "2017-12-01T10:15:30+01:00");
+        properties.put("offsetTime", "10:15:30+01:00");
+        properties.put("url", "http://localhost:8080/orders");
+        config = (WildFlyConfig) new WildFlyConfigBuilder()
+                .withConversionCache(conversionCache)
+                .withSources(new PropertiesConfigSource(properties, "converters", 100))
+                .build();
+    }
+
+    @Benchmark
+    public String string() {
+        return config.getValue("string", String.class);
+    }
+
+    @Benchmark
+    public Boolean booleanValue() {
+        return config.getValue("boolean", Boolean.class);
+    }
+
+    @Benchmark
+    public boolean primitiveBoolean() {
+        return config.getBoolean("boolean");
+    }
+
+    @Benchmark
+    public Integer integer() {
+        return config.getValue("int", Integer.class);
+    }
+
+    @Benchmark
+    public int primitiveInt() {
+        return config.getInt("int");
+    }
+
+    @Benchmark
+    public Long longValue() {
+        return config.getValue("long", Long.class);
+    }
+
+    @Benchmark
+    public long primitiveLong() {
+        return config.getLong("long");
+    }
+
+    @Benchmark
+    public Float floatValue() {
+        return config.getValue("float", Float.class);
+    }
+
+    @Benchmark
+    public Double doubleValue() {
+        return config.getValue("double", Double.class);
+    }
+
+    @Benchmark
+    public double primitiveDouble() {
+        return config.getDouble("double");
+    }
+
+    @Benchmark
+    public Duration duration() {
+        return config.getValue("duration", Duration.class);
+    }
+
+    @Benchmark
+    public LocalDate localDate() {
+        return config.getValue("localDate", LocalDate.class);
+    }
+
+    @Benchmark
+    public LocalTime localTime() {
+        return config.getValue("localTime", LocalTime.class);
+    }
+
+    @Benchmark
+    public LocalDateTime localDateTime() {
+        return config.getValue("localDateTime", LocalDateTime.class);
+    }
+
+    @Benchmark
+    public Instant instant() {
+        return config.getValue("instant", Instant.class);
+    }
+
+    @Benchmark
+    public OffsetDateTime offsetDateTime() {
+        return config.getValue("offsetDateTime", OffsetDateTime.class);
+    }
+
+    @Benchmark
+    public OffsetTime offsetTime() {
+        return config.getValue("offsetTime", OffsetTime.class);
+    }
+
+    @Benchmark
+    public URL url() {
+        return config.getValue("url", URL.class);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.benchmarks;
+
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.spi.Converter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Resolution of the converter of a type, with a {@code HashMap<Type, Converter>} lookup (how
+ * WildFlyConfig used to find its converters) and with the {@link ClassValue} it now uses for the built-in converters.
+ *
+ * See {@link ConverterBenchmark} for the cost of a whole conversion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterLookupBenchmark {
+
+    private static final Class<?>[] TYPES = {
+            String.class, Boolean.class, Boolean.TYPE, Double.class, Double.TYPE, Float.class, Float.TYPE,
+            Long.class, Long.TYPE, Integer.class, Integer.TYPE, Duration.class, LocalDate.class, LocalTime.class,
+            LocalDateTime.class, Instant.class, OffsetDateTime.class, OffsetTime.class, URL.class
+    };
+
+    @Param({"java.lang.String", "java.lang.Integer", "java.time.Duration"})
+    String typeName;
+
+    private Class<?> type;
+    private Map<Type, Converter> map;
+    private ClassValue<Converter> classValue;
+
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        type = Class.forName(typeName);
+        map = new HashMap<>();
+        for (Class<?> t : TYPES) {
+            map.put(t, value -> value);
+        }
+        Map<Type, Converter> converters = map;
+        classValue = new ClassValue<Converter>() {
+            @Override
+            protected Converter computeValue(Class<?> type) {
+                return converters.get(type);
+            }
+        };
+    }
+
+    @Benchmark
+    public Converter mapLookup() {
+        return map.get(type);
+    }
+
+    @Benchmark
+    public Converter classValueLookup() {
+        return classValue.get(type);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.benchmarks;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.wildfly.microprofile.config.ConfigKey;
+import org.wildfly.microprofile.config.WildFlyConfig;
+import org.wildfly.microprofile.config.WildFlyConfigBuilder;
+
+/**
+ * Property lookups across config sources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    @Param({"1", "4", "12"})
+    int sourceCount;
+
+    @Param({"10", "1000"})
+    int keyCount;
+
+    @Param({"false", "true"})
+    boolean snapshot;
+
+    private Config config;
+    private String lowestOrdinalKey;
+    private ConfigKey lowestOrdinalConfigKey;
+
+    @Setup
+    public void setup() {
+        WildFlyConfigBuilder builder = new WildFlyConfigBuilder();
+        if (snapshot) {
+            builder.snapshot();
+        }
+        config = builder.withSources(Sources.create(sourceCount, keyCount))
+                .build();
+        lowestOrdinalKey = Sources.lowestOrdinalKey(sourceCount);
+        lowestOrdinalConfigKey = ((WildFlyConfig) config).key(lowestOrdinalKey);
+    }
+
+    @Benchmark
+    public String getValueHighestOrdinal() {
+        return config.getValue("shared.key0", String.class);
+    }
+
+    @Benchmark
+    public String getValueLowestOrdinal() {
+        return config.getValue(lowestOrdinalKey, String.class);
+    }
+
+    @Benchmark
+    public String getValueByKeyLowestOrdinal() {
+        return ((WildFlyConfig) config).getValue(lowestOrdinalConfigKey, String.class);
+    }
+
+    @Benchmark
+    public Optional<String> getOptionalValueLowestOrdinal() {
+        return config.getOptionalValue(lowestOrdinalKey, String.class);
+    }
+
+    @Benchmark
+    public Optional<String> getOptionalValueMissing() {
+        return config.getOptionalValue("missing.key", String.class);
+    }
+
+    @Benchmark
+    public Object getValueMissing() {
+        try {
+            return config.getValue("missing.key", String.class);
+        } catch (NoSuchElementException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public void getPropertyNames(Blackhole blackhole) {
+        for (String name : config.getPropertyNames()) {
+            blackhole.consume(name);
+        }
+    }
+}
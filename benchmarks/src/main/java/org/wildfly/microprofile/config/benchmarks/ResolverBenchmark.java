@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.benchmarks;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.wildfly.microprofile.config.WildFlyConfigProviderResolver;
+
+/**
+ * Lookup of the config associated to a class loader in the class loader registry of the resolver.
+ *
+ * {@link #alternateClassLoaders(Blackhole)} looks up two configs per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolverBenchmark {
+
+    private WildFlyConfigProviderResolver resolver;
+    private ClassLoader first;
+    private ClassLoader second;
+
+    @Setup
+    public void setup() {
+        resolver = new WildFlyConfigProviderResolver();
+        first = new URLClassLoader(new URL[0]);
+        second = new URLClassLoader(new URL[0]);
+        resolver.registerConfig(resolver.getBuilder().build(), first);
+        resolver.registerConfig(resolver.getBuilder().build(), second);
+    }
+
+    @Benchmark
+    public Config sameClassLoader() {
+        return resolver.getConfig(first);
+    }
+
+    @Benchmark
+    public void alternateClassLoaders(Blackhole blackhole) {
+        blackhole.consume(resolver.getConfig(first));
+        blackhole.consume(resolver.getConfig(second));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.wildfly.microprofile.config.PropertiesConfigSource;
+
+/**
+ * Synthetic config sources used by the benchmarks.
+ */
+final class Sources {
+
+    private Sources() {
+    }
+
+    /**
+     * Create {@code sourceCount} config sources with decreasing ordinals.
+     * Each source defines {@code keyCount} keys named {@code source<i>.key<j>} and
+     * all the sources define the keys named {@code shared.key<j>}.
+     */
+    static ConfigSource[] create(int sourceCount, int keyCount) {
+        ConfigSource[] sources = new ConfigSource[sourceCount];
+        for (int i = 0; i < sourceCount; i++) {
+            Map<String, String> properties = new HashMap<>();
+            for (int j = 0; j < keyCount; j++) {
+                properties.put("source" + i + ".key" + j, "value" + j);
+                properties.put("shared.key" + j, "value" + j + " from source" + i);
+            }
+            sources[i] = new PropertiesConfigSource(properties, "source" + i, 1000 - i);
+        }
+        return sources;
+    }
+
+    /**
+     * @return the name of a key that is only defined by the config source with the lowest ordinal.
+     */
+    static String lowestOrdinalKey(int sourceCount) {
+        return "source" + (sourceCount - 1) + ".key0";
+    }
+}
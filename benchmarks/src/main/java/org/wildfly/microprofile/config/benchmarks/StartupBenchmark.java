@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.benchmarks;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wildfly.microprofile.config.WildFlyConfigBuilder;
+
+/**
+ * Cost of building the config of a deployment: discovery of the config sources and converters
+ * listed in the {@code META-INF/services} files of its class loader and loading of the default config sources.
+ *
+ * Each measurement builds a single config for a new class loader, as a deployment does.
+ * See {@link StartupHarness} to run the same scenario outside of JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(3)
+public class StartupBenchmark {
+
+    @Param({"1", "10", "100"})
+    int jarCount;
+
+    @Param({"0", "10"})
+    int dirCount;
+
+    @Param({"20"})
+    int propertyCount;
+
+    private SyntheticClassPath classPath;
+    private URLClassLoader classLoader;
+
+    @Setup(Level.Trial)
+    public void createClassPath() throws IOException {
+        classPath = new SyntheticClassPath(jarCount, dirCount, propertyCount);
+    }
+
+    @Setup(Level.Iteration)
+    public void createClassLoader() {
+        classLoader = classPath.newClassLoader();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeClassLoader() throws IOException {
+        classLoader.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteClassPath() throws IOException {
+        classPath.close();
+    }
+
+    @Benchmark
+    public Config build() {
+        return StartupHarness.build(classLoader);
+    }
+
+    @Benchmark
+    public Config buildWithDefaultSources() {
+        return new WildFlyConfigBuilder()
+                .forClassLoader(classLoader)
+                .addDefaultSources()
+                .build();
+    }
+}
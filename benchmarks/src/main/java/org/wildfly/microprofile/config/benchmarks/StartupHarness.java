@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.benchmarks;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.Config;
+import org.wildfly.microprofile.config.WildFlyConfigBuilder;
+
+/**
+ * Standalone harness that measures the time to build the config of many deployments
+ * without the JMH infrastructure, e.g. to run it under a profiler:
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.wildfly.microprofile.config.benchmarks.StartupHarness [jars] [dirs] [properties] [deployments]
+ * </pre>
+ */
+public final class StartupHarness {
+
+    private StartupHarness() {
+    }
+
+    static Config build(ClassLoader classLoader) {
+        return new WildFlyConfigBuilder()
+                .forClassLoader(classLoader)
+                .addDefaultSources()
+                .addDiscoveredSources()
+                .addDiscoveredConverters()
+                .build();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int jarCount = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int dirCount = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int propertyCount = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int deployments = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+
+        try (SyntheticClassPath classPath = new SyntheticClassPath(jarCount, dirCount, propertyCount)) {
+            long[] durations = new long[deployments];
+            for (int i = 0; i < deployments; i++) {
+                try (URLClassLoader classLoader = classPath.newClassLoader()) {
+                    long start = System.nanoTime();
+                    build(classLoader);
+                    durations[i] = System.nanoTime() - start;
+                }
+            }
+            long first = durations[0];
+            Arrays.sort(durations);
+            System.out.printf("%d deployments (%d jars, %d directories, %d properties per file)%n",
+                    deployments, jarCount, dirCount, propertyCount);
+            System.out.printf("first: %.3f ms, min: %.3f ms, median: %.3f ms, max: %.3f ms%n",
+                    millis(first),
+                    millis(durations[0]),
+                    millis(durations[deployments / 2]),
+                    millis(durations[deployments - 1]));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
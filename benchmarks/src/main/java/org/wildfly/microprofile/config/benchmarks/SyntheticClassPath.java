@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Class path made of jars and directories that each contain a {@code META-INF/microprofile-config.properties} file,
+ * like the modules of a large EAR deployment.
+ */
+final class SyntheticClassPath implements AutoCloseable {
+
+    private static final String MICROPROFILE_CONFIG_PROPERTIES = "META-INF/microprofile-config.properties";
+    // number of dummy class entries added to every jar so that the resource lookup has something to skip
+    private static final int FILLER_ENTRIES = 50;
+
+    private final Path root;
+    private final URL[] urls;
+
+    /**
+     * @param jarCount the number of jars on the class path
+     * @param dirCount the number of exploded directories on the class path
+     * @param propertyCount the number of properties in each {@code microprofile-config.properties} file
+     */
+    SyntheticClassPath(int jarCount, int dirCount, int propertyCount) throws IOException {
+        root = Files.createTempDirectory("mp-config-classpath");
+        urls = new URL[jarCount + dirCount];
+        for (int i = 0; i < jarCount; i++) {
+            Path jar = root.resolve("module" + i + ".jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+                for (int j = 0; j < FILLER_ENTRIES; j++) {
+                    out.putNextEntry(new ZipEntry("org/example/module" + i + "/Class" + j + ".class"));
+                    out.closeEntry();
+                }
+                out.putNextEntry(new ZipEntry(MICROPROFILE_CONFIG_PROPERTIES));
+                writeProperties(out, "module" + i, propertyCount);
+                out.closeEntry();
+            }
+            urls[i] = toURL(jar);
+        }
+        for (int i = 0; i < dirCount; i++) {
+            Path dir = root.resolve("classes" + i);
+            Path properties = dir.resolve(MICROPROFILE_CONFIG_PROPERTIES);
+            Files.createDirectories(properties.getParent());
+            try (OutputStream out = Files.newOutputStream(properties)) {
+                writeProperties(out, "classes" + i, propertyCount);
+            }
+            urls[jarCount + i] = toURL(dir);
+        }
+    }
+
+    /**
+     * @return a new class loader over this class path. A new class loader does not benefit
+     * from the jar files opened by the previous ones.
+     */
+    URLClassLoader newClassLoader() {
+        return new URLClassLoader(urls, SyntheticClassPath.class.getClassLoader());
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void writeProperties(OutputStream out, String prefix, int propertyCount) throws IOException {
+        StringBuilder properties = new StringBuilder();
+        for (int i = 0; i < propertyCount; i++) {
+            properties.append(prefix).append(".key").append(i).append('=').append("value").append(i).append('\n');
+        }
+        out.write(properties.toString().getBytes("ISO-8859-1"));
+    }
+
+    private static URL toURL(Path path) {
+        try {
+            return path.toUri().toURL();
+        } catch (MalformedURLException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -47,6 +47,7 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.PropertiesAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.modules.Module;
@@ -89,7 +90,24 @@ public class ConfigSourceDefinition extends PersistentResourceDefinition {
             .setRestartAllServices()
             .build();
 
-    static AttributeDefinition[] ATTRIBUTES = { ORDINAL, PROPERTIES, CLASS, DIR };
+    static AttributeDefinition WATCH = SimpleAttributeDefinitionBuilder.create("watch", ModelType.BOOLEAN)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowExpression(true)
+            .setRequires("dir")
+            .setAllowNull(true)
+            .setRestartAllServices()
+            .build();
+
+    static AttributeDefinition SCAN_PARALLELISM = SimpleAttributeDefinitionBuilder.create("scan-parallelism", ModelType.INT)
+            .setDefaultValue(new ModelNode(1))
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setRequires("dir")
+            .setAllowNull(true)
+            .setRestartAllServices()
+            .build();
+
+    static AttributeDefinition[] ATTRIBUTES = { ORDINAL, PROPERTIES, CLASS, DIR, WATCH, SCAN_PARALLELISM };
 
     protected ConfigSourceDefinition() {
         super(SubsystemExtension.CONFIG_SOURCE_PATH,
@@ -118,7 +136,11 @@ public class ConfigSourceDefinition extends PersistentResourceDefinition {
                             }
                         } else if (dirModel.isDefined()) {
                             File dir = new File(dirModel.asString());
-                            configSource = new DirConfigSource(dir, ordinal);
+                            configSource = new DirConfigSource.Builder(dir)
+                                    .withOrdinal(ordinal)
+                                    .watch(WATCH.resolveModelAttribute(context, model).asBoolean())
+                                    .withParallelism(SCAN_PARALLELISM.resolveModelAttribute(context, model).asInt())
+                                    .build();
                         } else {
                             Map<String, String> properties = PropertiesAttributeDefinition.unwrapModel(context, props);
                             configSource = new PropertiesConfigSource(properties, name, ordinal);
@@ -22,6 +22,9 @@
 
 package org.wildfly.extension.microprofile.config;
 
+import java.io.Closeable;
+import java.io.IOException;
+
 import io.undertow.server.handlers.PathHandler;
 import org.eclipse.microprofile.config.spi.ConfigSource;
 import org.jboss.as.controller.OperationContext;
@@ -58,6 +61,13 @@ public class ConfigSourceService implements Service<ConfigSource> {
 
     @Override
     public void stop(StopContext stopContext) {
+        if (configSource instanceof Closeable) {
+            try {
+                ((Closeable) configSource).close();
+            } catch (IOException e) {
+                MicroProfileConfigLogger.ROOT_LOGGER.debugf(e, "Unable to close config source %s", name);
+            }
+        }
     }
 
     @Override
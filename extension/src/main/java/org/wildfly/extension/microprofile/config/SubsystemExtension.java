@@ -12,6 +12,12 @@ import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler;
 import org.jboss.as.controller.parsing.ExtensionParsingContext;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.jboss.dmr.ModelNode;
 
 
 /**
@@ -31,7 +37,8 @@ public class SubsystemExtension implements Extension {
     private static final String RESOURCE_NAME = SubsystemExtension.class.getPackage().getName() + ".LocalDescriptions";
 
     protected static final ModelVersion VERSION_1_0_0 = ModelVersion.create(1, 0, 0);
-    private static final ModelVersion CURRENT_MODEL_VERSION = VERSION_1_0_0;
+    protected static final ModelVersion VERSION_1_1_0 = ModelVersion.create(1, 1, 0);
+    private static final ModelVersion CURRENT_MODEL_VERSION = VERSION_1_1_0;
 
     static ResourceDescriptionResolver getResourceDescriptionResolver(final String... keyPrefix) {
         return getResourceDescriptionResolver(true, keyPrefix);
@@ -50,17 +57,37 @@ public class SubsystemExtension implements Extension {
     @Override
     public void initialize(ExtensionContext context) {
         final SubsystemRegistration subsystem = context.registerSubsystem(SUBSYSTEM_NAME, CURRENT_MODEL_VERSION);
-        subsystem.registerXMLElementWriter(SubsytemParser_1_0.INSTANCE);
+        subsystem.registerXMLElementWriter(SubsystemParser_1_1.INSTANCE);
 
         final ManagementResourceRegistration registration = subsystem.registerSubsystemModel(new SubsystemDefinition());
         registration.registerOperationHandler(GenericSubsystemDescribeHandler.DEFINITION, GenericSubsystemDescribeHandler.INSTANCE);
 
         registration.registerSubModel(new ConfigSourceDefinition());
         registration.registerSubModel(new ConfigSourceProviderDefinition());
+
+        if (context.isRegisterTransformers()) {
+            registerTransformers_1_0_0(subsystem);
+        }
     }
 
     public void initializeParsers(ExtensionParsingContext context) {
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, SubsytemParser_1_0.NAMESPACE, SubsytemParser_1_0.INSTANCE);
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, SubsystemParser_1_1.NAMESPACE, SubsystemParser_1_1.INSTANCE);
+    }
+
+    /**
+     * The watch and scan-parallelism attributes of the config sources do not exist in 1.0.0:
+     * they are discarded if they have their default value and rejected otherwise.
+     */
+    private static void registerTransformers_1_0_0(SubsystemRegistration subsystem) {
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        builder.addChildResource(CONFIG_SOURCE_PATH)
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), ConfigSourceDefinition.WATCH)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(1)), ConfigSourceDefinition.SCAN_PARALLELISM)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, ConfigSourceDefinition.WATCH, ConfigSourceDefinition.SCAN_PARALLELISM)
+                .end();
+        TransformationDescription.Tools.register(builder.build(), subsystem, VERSION_1_0_0);
     }
 
 }
@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.microprofile.config;
+
+import static org.jboss.as.controller.PersistentResourceXMLDescription.builder;
+
+import org.eclipse.microprofile.config.spi.ConfigSourceProvider;
+import org.jboss.as.controller.PersistentResourceXMLDescription;
+import org.jboss.as.controller.PersistentResourceXMLParser;
+
+public class SubsystemParser_1_1 extends PersistentResourceXMLParser {
+    /**
+     * The name space used for the {@code subsystem} element
+     */
+    public static final String NAMESPACE = "urn:wildfly:microprofile-config:1.1";
+
+    static final PersistentResourceXMLParser INSTANCE = new SubsystemParser_1_1();
+
+    private static final PersistentResourceXMLDescription xmlDescription;
+
+    static {
+        xmlDescription = builder(new SubsystemDefinition(), NAMESPACE)
+                .addChild(builder(new ConfigSourceDefinition())
+                        .addAttributes(
+                                ConfigSourceDefinition.ORDINAL,
+                                ConfigSourceDefinition.PROPERTIES,
+                                ConfigSourceDefinition.CLASS,
+                                ConfigSourceDefinition.DIR,
+                                ConfigSourceDefinition.WATCH,
+                                ConfigSourceDefinition.SCAN_PARALLELISM))
+                .addChild(builder(new ConfigSourceProviderDefinition())
+                        .addAttributes(
+                                ConfigSourceProviderDefinition.CLASS))
+                .build();
+    }
+
+    @Override
+    public PersistentResourceXMLDescription getParserDescription() {
+        return xmlDescription;
+    }
+}
@@ -32,6 +32,17 @@ public class Subsystem_1_0_ParsingTestCase extends AbstractSubsystemBaseTest {
         return System.getProperties();
     }
 
+    @Override
+    public void testSubsystem() throws Exception {
+        // the subsystem is marshalled with the current namespace
+        standardSubsystemTest(null, false);
+    }
+
+    @Override
+    public void testSchemaOfSubsystemTemplates() throws Exception {
+        // the subsystem templates use the current namespace
+    }
+
 
 
 }
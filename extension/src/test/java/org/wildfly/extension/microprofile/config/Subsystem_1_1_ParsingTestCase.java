@@ -0,0 +1,34 @@
+package org.wildfly.extension.microprofile.config;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
+
+/**
+ * Parsing and marshalling of the subsystem with the 1.1 namespace.
+ */
+public class Subsystem_1_1_ParsingTestCase extends AbstractSubsystemBaseTest {
+
+    public Subsystem_1_1_ParsingTestCase() {
+        super(SubsystemExtension.SUBSYSTEM_NAME, new SubsystemExtension());
+    }
+
+
+    @Override
+    protected String getSubsystemXml() throws IOException {
+        return readResource("subsystem_1_1.xml");
+    }
+
+    @Override
+    protected String getSubsystemXsdPath() throws IOException {
+        return "schema/microprofile-config-extension_1_1.xsd";
+    }
+
+    protected Properties getResolvedProperties() {
+        return System.getProperties();
+    }
+
+
+
+}
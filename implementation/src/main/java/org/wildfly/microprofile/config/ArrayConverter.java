@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.microprofile.config.spi.Converter;
+
+/**
+ * Converter of a comma-separated value to an array.
+ *
+ * A comma that is part of an element is escaped with a backslash (e.g. {@code a\,b}) and empty elements are skipped.
+ * The arrays of {@code int}, {@code long}, {@code double} and {@code boolean} are filled directly with the parsed
+ * elements when their built-in converters are used.
+ */
+class ArrayConverter implements Converter<Object> {
+
+    private final Class<?> componentType;
+    private final Converter<?> componentConverter;
+
+    ArrayConverter(Class<?> componentType, Converter<?> componentConverter) {
+        this.componentType = componentType;
+        this.componentConverter = componentConverter;
+    }
+
+    @Override
+    public Object convert(String value) {
+        if (value == null) {
+            return null;
+        }
+        Tokenizer tokenizer = new Tokenizer(value);
+        if (componentType == int.class && componentConverter == Converters.INTEGER_CONVERTER) {
+            return toIntArray(tokenizer);
+        } else if (componentType == long.class && componentConverter == Converters.LONG_CONVERTER) {
+            return toLongArray(tokenizer);
+        } else if (componentType == double.class && componentConverter == Converters.DOUBLE_CONVERTER) {
+            return toDoubleArray(tokenizer);
+        } else if (componentType == boolean.class && componentConverter == Converters.BOOLEAN_CONVERTER) {
+            return toBooleanArray(tokenizer);
+        }
+        List<Object> elements = new ArrayList<>();
+        String token;
+        while ((token = tokenizer.next()) != null) {
+            elements.add(componentConverter.convert(token));
+        }
+        Object array = Array.newInstance(componentType, elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Array.set(array, i, elements.get(i));
+        }
+        return array;
+    }
+
+    private static int[] toIntArray(Tokenizer tokenizer) {
+        int[] array = new int[8];
+        int size = 0;
+        String token;
+        while ((token = tokenizer.next()) != null) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = Integer.parseInt(token);
+        }
+        return Arrays.copyOf(array, size);
+    }
+
+    private static long[] toLongArray(Tokenizer tokenizer) {
+        long[] array = new long[8];
+        int size = 0;
+        String token;
+        while ((token = tokenizer.next()) != null) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = Long.parseLong(token);
+        }
+        return Arrays.copyOf(array, size);
+    }
+
+    private static double[] toDoubleArray(Tokenizer tokenizer) {
+        double[] array = new double[8];
+        int size = 0;
+        String token;
+        while ((token = tokenizer.next()) != null) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = Double.parseDouble(token);
+        }
+        return Arrays.copyOf(array, size);
+    }
+
+    private static boolean[] toBooleanArray(Tokenizer tokenizer) {
+        boolean[] array = new boolean[8];
+        int size = 0;
+        String token;
+        while ((token = tokenizer.next()) != null) {
+            if (size == array.length) {
+                array = Arrays.copyOf(array, size * 2);
+            }
+            array[size++] = Converters.parseBoolean(token);
+        }
+        return Arrays.copyOf(array, size);
+    }
+
+    /**
+     * Iterate over the elements of a comma-separated value.
+     *
+     * An element is a substring of the value unless it contains an escaped character.
+     */
+    static final class Tokenizer {
+        private final String value;
+        private int position;
+
+        Tokenizer(String value) {
+            this.value = value;
+        }
+
+        /**
+         * @return the next non-empty element or {@code null} if there are no more elements
+         */
+        String next() {
+            int length = value.length();
+            while (position < length) {
+                int start = position;
+                StringBuilder unescaped = null;
+                int i = start;
+                while (i < length) {
+                    char c = value.charAt(i);
+                    if (c == ',') {
+                        break;
+                    }
+                    if (c == '\\' && i + 1 < length) {
+                        if (unescaped == null) {
+                            unescaped = new StringBuilder(length - start);
+                        }
+                        unescaped.append(value, start, i);
+                        // the escaped character is kept as is
+                        start = ++i;
+                    }
+                    i++;
+                }
+                position = i + 1;
+                String token;
+                if (unescaped != null) {
+                    token = unescaped.append(value, start, i).toString();
+                } else {
+                    token = value.substring(start, i);
+                }
+                if (!token.isEmpty()) {
+                    return token;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.wildfly.microprofile.config;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Concurrent map whose keys are weakly referenced class loaders.
+ *
+ * Class loaders are compared by identity and their entries are removed once they have been garbage collected.
+ * The map also keeps a reverse index from each value to its class loader so that an entry can be removed
+ * by value without scanning the map.
+ *
+ * Values created by {@link #computeIfAbsent(ClassLoader, Function)} are computed outside of any lock of the map.
+ */
+class ClassLoaderMap<V> {
+
+    // values are either a V or a Pending computation of a V
+    private final ConcurrentMap<Object, Object> values = new ConcurrentHashMap<>();
+    private final ConcurrentMap<V, WeakKey> keys = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+
+    /**
+     * Return the value associated to the class loader, computing it only once if it is absent.
+     *
+     * The function is called without holding any lock: other threads asking for the same class loader wait
+     * for its result while the other class loaders remain accessible. If the function itself asks for the value
+     * of the same class loader, it gets a value computed separately that is not stored in the map.
+     */
+    V computeIfAbsent(ClassLoader classLoader, Function<ClassLoader, V> function) {
+        Object existing = values.get(new LookupKey(classLoader));
+        if (existing == null) {
+            expungeStaleEntries();
+            WeakKey key = new WeakKey(classLoader, queue);
+            Pending<V> pending = new Pending<>();
+            existing = values.putIfAbsent(key, pending);
+            if (existing == null) {
+                V value;
+                try {
+                    value = function.apply(classLoader);
+                } catch (RuntimeException | Error e) {
+                    values.remove(key, pending);
+                    pending.result.completeExceptionally(e);
+                    throw e;
+                }
+                // the value may have been replaced by put() or removed in the meantime
+                if (values.replace(key, pending, value)) {
+                    keys.putIfAbsent(value, key);
+                }
+                pending.result.complete(value);
+                return value;
+            }
+        }
+        if (existing instanceof Pending) {
+            Pending<V> pending = (Pending<V>) existing;
+            if (pending.owner == Thread.currentThread()) {
+                return function.apply(classLoader);
+            }
+            return pending.await();
+        }
+        return (V) existing;
+    }
+
+    void put(ClassLoader classLoader, V value) {
+        expungeStaleEntries();
+        WeakKey key = new WeakKey(classLoader, queue);
+        Object previous = values.put(key, value);
+        if (previous != null && previous != value && !(previous instanceof Pending)) {
+            keys.remove(previous);
+        }
+        keys.put(value, key);
+    }
+
+    /**
+     * Remove the entry associated to the class loader.
+     *
+     * @return the removed value or {@code null}
+     */
+    V remove(ClassLoader classLoader) {
+        expungeStaleEntries();
+        Object value = values.remove(new LookupKey(classLoader));
+        if (value == null || value instanceof Pending) {
+            return null;
+        }
+        keys.remove(value);
+        return (V) value;
+    }
+
+    /**
+     * Remove the entry holding the given value.
+     *
+     * If the value is associated to several class loaders, only the last association is removed.
+     *
+     * @return the class loader of the removed entry or {@code null}
+     */
+    ClassLoader removeValue(V value) {
+        expungeStaleEntries();
+        WeakKey key = keys.remove(value);
+        if (key != null && values.remove(key, value)) {
+            return key.get();
+        }
+        return null;
+    }
+
+    private void expungeStaleEntries() {
+        Object stale;
+        while ((stale = queue.poll()) != null) {
+            Object value = values.remove(stale);
+            if (value != null && !(value instanceof Pending)) {
+                keys.remove(value, stale);
+            }
+        }
+    }
+
+    /**
+     * Value being computed by the owner thread.
+     */
+    private static final class Pending<V> {
+        final Thread owner = Thread.currentThread();
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        V await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static final class WeakKey extends WeakReference<ClassLoader> {
+        private final int hash;
+
+        WeakKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o instanceof LookupKey) {
+                ClassLoader classLoader = get();
+                return classLoader != null && classLoader == ((LookupKey) o).classLoader;
+            }
+            if (o instanceof WeakKey) {
+                ClassLoader classLoader = get();
+                return classLoader != null && classLoader == ((WeakKey) o).get();
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Short-lived key used to look up entries without registering a weak reference.
+     */
+    private static final class LookupKey {
+        private final ClassLoader classLoader;
+
+        LookupKey(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o instanceof WeakKey) {
+                return o.equals(this);
+            }
+            return o instanceof LookupKey && classLoader == ((LookupKey) o).classLoader;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(classLoader);
+        }
+    }
+}
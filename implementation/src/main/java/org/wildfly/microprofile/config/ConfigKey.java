@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config;
+
+/**
+ * Handle to a property of a {@link WildFlyConfig} for code that reads the same property repeatedly.
+ *
+ * A key is obtained once with {@link WildFlyConfig#key(String)} and passed to
+ * {@link WildFlyConfig#getValue(ConfigKey, Class)} or {@link WildFlyConfig#getOptionalValue(ConfigKey, Class)}.
+ * If the config is a snapshot, the key points directly to the value of the property so that no map lookup is needed.
+ * If the conversion cache of the config is enabled, the key also keeps the last converted value of the property.
+ *
+ * A key can only be used with the config that created it.
+ */
+public final class ConfigKey {
+
+    final WildFlyConfig config;
+    private final String name;
+    // value of the property in the snapshot index of the config or null
+    final WildFlyConfig.ResolvedValue resolved;
+    // last conversion of the property value
+    volatile Conversion conversion;
+
+    ConfigKey(WildFlyConfig config, String name, WildFlyConfig.ResolvedValue resolved) {
+        this.config = config;
+        this.name = name;
+        this.resolved = resolved;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConfigKey)) {
+            return false;
+        }
+        ConfigKey other = (ConfigKey) o;
+        return config == other.config && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigKey[name=" + name + "]";
+    }
+
+    static final class Conversion {
+        final String value;
+        final Class<?> type;
+        final Object converted;
+
+        Conversion(String value, Class<?> type, Object converted) {
+            this.value = value;
+            this.type = type;
+            this.converted = converted;
+        }
+    }
+}
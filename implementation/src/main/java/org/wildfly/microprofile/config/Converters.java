@@ -46,19 +46,7 @@ class Converters {
 
     static final Converter<String> STRING_CONVERTER = (Converter & Serializable) value -> value;
 
-    static final Converter<Boolean> BOOLEAN_CONVERTER = (Converter & Serializable) value -> {
-        if (value != null) {
-            return "TRUE".equalsIgnoreCase(value)
-                    || "1".equalsIgnoreCase(value)
-                    || "YES".equalsIgnoreCase(value)
-                    || "Y".equalsIgnoreCase(value)
-                    || "ON".equalsIgnoreCase(value)
-                    || "JA".equalsIgnoreCase(value)
-                    || "J".equalsIgnoreCase(value)
-                    || "OUI".equalsIgnoreCase(value);
-        }
-        return null;
-    };
+    static final Converter<Boolean> BOOLEAN_CONVERTER = (Converter & Serializable) value -> value != null ? parseBoolean(value) : null;
 
     static final Converter<Double> DOUBLE_CONVERTER = (Converter & Serializable) value -> value != null ? Double.valueOf(value) : null;
 
@@ -132,6 +120,47 @@ class Converters {
         }
     };
 
+    /**
+     * Return {@code true} if the value is one of {@code true}, {@code 1}, {@code yes}, {@code y}, {@code on},
+     * {@code ja}, {@code j} or {@code oui} (ignoring case).
+     *
+     * The candidate is selected by the length and the first character of the value so that
+     * at most two comparisons are made.
+     */
+    static boolean parseBoolean(String value) {
+        switch (value.length()) {
+            case 1:
+                char c = value.charAt(0);
+                return c == '1' || c == 'y' || c == 'Y' || c == 'j' || c == 'J';
+            case 2:
+                switch (value.charAt(0)) {
+                    case 'o':
+                    case 'O':
+                        return value.regionMatches(true, 0, "ON", 0, 2);
+                    case 'j':
+                    case 'J':
+                        return value.regionMatches(true, 0, "JA", 0, 2);
+                    default:
+                        return "ON".equalsIgnoreCase(value) || "JA".equalsIgnoreCase(value);
+                }
+            case 3:
+                switch (value.charAt(0)) {
+                    case 'y':
+                    case 'Y':
+                        return value.regionMatches(true, 0, "YES", 0, 3);
+                    case 'o':
+                    case 'O':
+                        return value.regionMatches(true, 0, "OUI", 0, 3);
+                    default:
+                        return "YES".equalsIgnoreCase(value) || "OUI".equalsIgnoreCase(value);
+                }
+            case 4:
+                return "TRUE".equalsIgnoreCase(value);
+            default:
+                return false;
+        }
+    }
+
     public static final Map<Type, Converter> ALL_CONVERTERS = new HashMap<>();
 
     static {
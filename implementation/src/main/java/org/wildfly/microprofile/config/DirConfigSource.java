@@ -22,71 +22,330 @@
 
 package org.wildfly.microprofile.config;
 
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.eclipse.microprofile.config.spi.ConfigSource;
 
 /**
+ * Config source that reads its properties from a directory: each file name is a key and the file content is its value.
+ *
+ * Line breaks in the file content are preserved, except for a trailing line break.
+ *
+ * When the directory is watched, changes to its files are applied to the properties while the config source is used.
+ * Kubernetes config maps and secrets are supported: their files are symbolic links through a {@code ..data} directory
+ * and a change of this directory reloads the whole config source at once.
+ *
  * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2017 Red Hat inc.
  */
-public class DirConfigSource implements ConfigSource {
+public class DirConfigSource implements ConfigSource, Closeable {
 
     private static final int DEFAULT_ORDINAL = 100;
+    // delay without any new event before the changes are applied
+    private static final long SETTLE_DELAY_MILLIS = 100;
+    // content of a file that could not be read
+    private static final Content UNREADABLE = new LoadedContent(null);
 
     private final File dir;
     private final int ordinal;
-    private final Map<String, String> props;
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap());
+    // number of times the properties have changed, incremented under this
+    private volatile int modificationCount;
+    // fingerprints of the files that have been read, guarded by this
+    private final Map<String, Fingerprint> fingerprints = new HashMap<>();
+    private final WatchService watchService;
+    // maximum number of files that are read concurrently during a scan
+    private final int parallelism;
+    // threads that read the files, created by the first scan that needs them, guarded by this
+    private ForkJoinPool pool;
+    private boolean closed;
+    // files larger than this size are memory-mapped and decoded only when their value is requested
+    private final long mappedFileThreshold;
+    // whether the files are read only when their value is requested
+    private final boolean lazy;
 
     DirConfigSource(File dir) {
         this(dir, DEFAULT_ORDINAL);
     }
 
     public DirConfigSource(File dir, int ordinal) {
-        this.dir = dir;
-        this.ordinal = ordinal;
-        this.props = scan();
+        this(new Builder(dir).withOrdinal(ordinal));
+    }
+
+    private DirConfigSource(Builder builder) {
+        this.dir = builder.dir;
+        this.ordinal = builder.ordinal;
+        this.parallelism = builder.parallelism;
+        this.mappedFileThreshold = builder.mappedFileThreshold;
+        this.lazy = builder.lazy;
+        // the directory is registered before it is scanned so that no change made during the scan is missed
+        this.watchService = builder.watch ? register() : null;
+        refresh();
+        if (watchService != null) {
+            Thread watcher = new Thread(() -> watch(watchService), "DirConfigSource watcher for " + dir.getAbsolutePath());
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    /**
+     * Rescan the directory and read only the files that have been added or modified since the last scan.
+     *
+     * A file is considered modified if its last modified time, size or file key (e.g. its inode) has changed.
+     *
+     * @return the number of files that have been read or removed
+     */
+    public synchronized int refresh() {
+        Set<String> names = listFileNames();
+        // files that have been deleted since the last scan
+        names.addAll(snapshot.contents.keySet());
+        return update(names);
     }
 
-    private Map<String, String> scan() {
-        Map<String, String> props = new HashMap<>();
+    private Set<String> listFileNames() {
+        Set<String> names = new HashSet<>();
         if (dir == null || !dir.isDirectory()) {
-            return props;
+            return names;
         }
-        for (File file : dir.listFiles()) {
-            if (file.isDirectory()) {
-                continue;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir.toPath())) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!isHidden(name)) {
+                    names.add(name);
+                }
             }
-            try {
-                String key = file.getName();
-                String value = readContent(file);
-                props.put(key, value);
-            } catch (IOException e) {
-                e.printStackTrace();
-                // should log some errors...
+        } catch (IOException e) {
+            e.printStackTrace();
+            // should log some errors...
+        }
+        return names;
+    }
+
+    /**
+     * Read the given files if their fingerprints have changed and publish the updated properties.
+     *
+     * @return the number of files that have been read or removed
+     */
+    private synchronized int update(Set<String> names) {
+        List<FileUpdate> fileUpdates = new ArrayList<>(names.size());
+        for (String name : names) {
+            fileUpdates.add(new FileUpdate(dir.toPath().resolve(name), fingerprints.get(name)));
+        }
+        readAll(fileUpdates);
+
+        Map<String, Content> updated = null;
+        int touched = 0;
+        for (FileUpdate fileUpdate : fileUpdates) {
+            String name = fileUpdate.name;
+            if (fileUpdate.fingerprint == null) {
+                // the file has been deleted or is not a regular file
+                fingerprints.remove(name);
+                if (snapshot.contents.containsKey(name)) {
+                    if (updated == null) {
+                        updated = new HashMap<>(snapshot.contents);
+                    }
+                    updated.remove(name);
+                    touched++;
+                }
+            } else if (fileUpdate.content != null) {
+                if (updated == null) {
+                    updated = new HashMap<>(snapshot.contents);
+                }
+                updated.put(name, fileUpdate.content);
+                fingerprints.put(name, fileUpdate.fingerprint);
+                touched++;
             }
         }
-        return props;
+        if (updated != null) {
+            snapshot = new Snapshot(updated);
+            modificationCount++;
+        }
+        return touched;
+    }
+
+    /**
+     * Read the files, using up to {@link #parallelism} threads.
+     */
+    private void readAll(List<FileUpdate> fileUpdates) {
+        if (parallelism <= 1 || fileUpdates.size() <= 1 || closed) {
+            fileUpdates.forEach(FileUpdate::call);
+            return;
+        }
+        if (pool == null) {
+            // idle threads of the pool terminate on their own between scans
+            pool = new ForkJoinPool(parallelism);
+        }
+        try {
+            for (Future<FileUpdate> future : pool.invokeAll(fileUpdates)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+            // should log some errors...
+        }
+    }
+
+    /**
+     * Kubernetes keeps its own entries ({@code ..data}, timestamped directories) next to the files of the config map.
+     */
+    private static boolean isHidden(String name) {
+        return name.startsWith("..");
+    }
+
+    private static Content readContent(Path file, long mappedFileThreshold) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > mappedFileThreshold) {
+                // the mapping remains valid after the channel is closed
+                return new MappedContent(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            }
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            while (bytes.hasRemaining() && channel.read(bytes) != -1) {
+            }
+            bytes.flip();
+            return new LoadedContent(decode(bytes));
+        }
+    }
+
+    /**
+     * @return the content of the file or an empty string if it can no longer be read
+     */
+    private static String read(Path file) {
+        try {
+            return decode(ByteBuffer.wrap(Files.readAllBytes(file)));
+        } catch (IOException e) {
+            return "";
+        }
     }
 
-    private String readContent(File file) throws IOException {
-        String content = Files.lines(file.toPath())
-                .collect(Collectors.joining());
+    private static String decode(ByteBuffer bytes) {
+        String content = StandardCharsets.UTF_8.decode(bytes).toString();
+        // files created by text editors end with a line break that is not part of the value
+        if (content.endsWith("\r\n")) {
+            return content.substring(0, content.length() - 2);
+        } else if (content.endsWith("\n") || content.endsWith("\r")) {
+            return content.substring(0, content.length() - 1);
+        }
         return content;
     }
 
+    private WatchService register() {
+        if (dir == null || !dir.isDirectory()) {
+            return null;
+        }
+        try {
+            WatchService watchService = dir.toPath().getFileSystem().newWatchService();
+            dir.toPath().register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+            return watchService;
+        } catch (IOException e) {
+            e.printStackTrace();
+            // should log some errors...
+            return null;
+        }
+    }
+
+    private void watch(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<String> changedFiles = new HashSet<>();
+                boolean rescan = false;
+                // collect the events until they settle so that a burst of changes is applied at once
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW) {
+                            rescan = true;
+                            continue;
+                        }
+                        String name = event.context().toString();
+                        if (isHidden(name)) {
+                            // Kubernetes has swapped its ..data symbolic link: every file may have changed
+                            rescan = true;
+                        } else {
+                            changedFiles.add(name);
+                        }
+                    }
+                    if (!key.reset()) {
+                        // the directory is no longer accessible
+                        return;
+                    }
+                } while ((key = watchService.poll(SETTLE_DELAY_MILLIS, MILLISECONDS)) != null);
+
+                if (rescan) {
+                    refresh();
+                } else {
+                    update(changedFiles);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the config source is closed
+        }
+    }
+
+    /**
+     * The values of the memory-mapped files are decoded when this method is called.
+     */
     @Override
     public Map<String, String> getProperties() {
-        return props;
+        return snapshot.getProperties();
+    }
+
+    /**
+     * Forget the fingerprint of a file whose lazy read has failed so that the next refresh reads it again,
+     * even if its fingerprint is unchanged (e.g. only its permissions were fixed).
+     */
+    private synchronized void forget(String name, Content content) {
+        if (snapshot.contents.get(name) == content) {
+            fingerprints.remove(name);
+        }
+    }
+
+    /**
+     * Return the number of times the properties have changed, to detect changes without reading
+     * the values of the files that have not been read yet.
+     */
+    int getModificationCount() {
+        return modificationCount;
     }
 
     @Override
     public String getValue(String key) {
-        return props.get(key);
+        Content content = snapshot.contents.get(key);
+        return content != null ? content.get() : null;
     }
 
     @Override
@@ -98,4 +357,285 @@ public class DirConfigSource implements ConfigSource {
     public int getOrdinal() {
         return ordinal;
     }
+
+    /**
+     * Stop watching the directory and release the threads that read its files.
+     */
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        synchronized (this) {
+            closed = true;
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+    }
+
+    private static final class Fingerprint {
+        private final FileTime lastModifiedTime;
+        private final long size;
+        private final Object fileKey;
+
+        private Fingerprint(BasicFileAttributes attributes) {
+            this.lastModifiedTime = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            // may be null if the file system does not provide file keys
+            this.fileKey = attributes.fileKey();
+        }
+
+        /**
+         * @return the fingerprint of the file (following symbolic links) or {@code null} if it is not a regular file
+         */
+        static Fingerprint of(Path file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                return attributes.isRegularFile() ? new Fingerprint(attributes) : null;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) o;
+            return size == other.size
+                    && lastModifiedTime.equals(other.lastModifiedTime)
+                    && Objects.equals(fileKey, other.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(lastModifiedTime, size, fileKey);
+        }
+    }
+
+    /**
+     * Contents of the files and the properties map that is materialized from them when it is requested.
+     */
+    private static final class Snapshot {
+        final Map<String, Content> contents;
+        private volatile Map<String, String> properties;
+
+        Snapshot(Map<String, Content> contents) {
+            this.contents = contents;
+        }
+
+        Map<String, String> getProperties() {
+            Map<String, String> properties = this.properties;
+            if (properties == null) {
+                properties = new HashMap<>();
+                for (Map.Entry<String, Content> entry : contents.entrySet()) {
+                    String value = entry.getValue().get();
+                    if (value != null) {
+                        properties.put(entry.getKey(), value);
+                    }
+                }
+                properties = Collections.unmodifiableMap(properties);
+                this.properties = properties;
+            }
+            return properties;
+        }
+    }
+
+    private interface Content {
+        String get();
+    }
+
+    private static final class LoadedContent implements Content {
+        private final String value;
+
+        LoadedContent(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String get() {
+            return value;
+        }
+    }
+
+    /**
+     * Content of a memory-mapped file that is decoded the first time it is requested.
+     *
+     * If the file has been truncated since it was mapped, accessing the mapping fails and the file is read again instead.
+     */
+    private static final class MappedContent implements Content {
+        private final Path file;
+        private ByteBuffer buffer;
+        private volatile String value;
+
+        MappedContent(Path file, ByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public String get() {
+            String value = this.value;
+            if (value == null) {
+                synchronized (this) {
+                    value = this.value;
+                    if (value == null) {
+                        try {
+                            value = decode(buffer.duplicate());
+                        } catch (InternalError e) {
+                            // the JVM reports a fault in the mapped memory (e.g. SIGBUS) with an InternalError
+                            value = read(file);
+                        }
+                        this.value = value;
+                        // the mapping is no longer needed once the value is decoded
+                        buffer = null;
+                    }
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Content of a file that is read the first time it is requested.
+     *
+     * A failed read is recorded and the file has no value until it is read again by the next refresh,
+     * as a file whose eager read has failed.
+     */
+    private final class LazyContent implements Content {
+        private final String name;
+        private final Path file;
+        private volatile Content content;
+
+        LazyContent(String name, Path file) {
+            this.name = name;
+            this.file = file;
+        }
+
+        @Override
+        public String get() {
+            Content content = this.content;
+            if (content == null) {
+                synchronized (this) {
+                    content = this.content;
+                    if (content == null) {
+                        try {
+                            content = readContent(file, mappedFileThreshold);
+                        } catch (IOException e) {
+                            content = UNREADABLE;
+                        }
+                        this.content = content;
+                    }
+                }
+                if (content == UNREADABLE) {
+                    forget(name, this);
+                }
+            }
+            return content.get();
+        }
+    }
+
+    /**
+     * Reads a file if its fingerprint differs from the previous one.
+     */
+    private final class FileUpdate implements Callable<FileUpdate> {
+        final String name;
+        private final Path file;
+        private final Fingerprint previous;
+        // null if the file is not a regular file
+        Fingerprint fingerprint;
+        // null if the file is unchanged or could not be read
+        Content content;
+
+        FileUpdate(Path file, Fingerprint previous) {
+            this.name = file.getFileName().toString();
+            this.file = file;
+            this.previous = previous;
+        }
+
+        @Override
+        public FileUpdate call() {
+            fingerprint = Fingerprint.of(file);
+            if (fingerprint != null && !fingerprint.equals(previous)) {
+                if (lazy) {
+                    content = new LazyContent(name, file);
+                    return this;
+                }
+                try {
+                    content = readContent(file, mappedFileThreshold);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    // should log some errors...
+                }
+            }
+            return this;
+        }
+    }
+
+    public static class Builder {
+        private final File dir;
+        private int ordinal = DEFAULT_ORDINAL;
+        private boolean watch = false;
+        private int parallelism = 1;
+        private long mappedFileThreshold = Long.MAX_VALUE;
+        private boolean lazy = false;
+
+        public Builder(File dir) {
+            this.dir = dir;
+        }
+
+        public Builder withOrdinal(int ordinal) {
+            this.ordinal = ordinal;
+            return this;
+        }
+
+        /**
+         * Watch the directory to apply changes to its files while the config source is used.
+         */
+        public Builder watch(boolean watch) {
+            this.watch = watch;
+            return this;
+        }
+
+        /**
+         * Read up to {@code parallelism} files concurrently when the directory is scanned.
+         */
+        public Builder withParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Memory-map the files larger than {@code size} bytes instead of reading them: their content is decoded
+         * only when their value is requested.
+         *
+         * A file that is truncated before its value is decoded is read again instead.
+         */
+        public Builder withMappedFileThreshold(long size) {
+            this.mappedFileThreshold = size;
+            return this;
+        }
+
+        /**
+         * List the files when the directory is scanned but read each file only when its value is first requested.
+         * {@link DirConfigSource#getProperties()} reads all the files that have not been read yet.
+         */
+        public Builder lazy(boolean lazy) {
+            this.lazy = lazy;
+            return this;
+        }
+
+        public DirConfigSource build() {
+            return new DirConfigSource(this);
+        }
+    }
 }
@@ -24,8 +24,11 @@ package org.wildfly.microprofile.config;
 
 import java.io.Serializable;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.microprofile.config.spi.ConfigSource;
 
@@ -34,12 +37,32 @@ import org.eclipse.microprofile.config.spi.ConfigSource;
  */
 public class EnvConfigSource implements ConfigSource, Serializable {
 
+    /**
+     * The environment is global to the process: all the configs share this config source.
+     */
+    static final EnvConfigSource INSTANCE = new EnvConfigSource();
+
+    // maximum number of property names whose environment variable is remembered
+    private static final int MAX_RESOLVED_NAMES = 1024;
+    // marks property names that do not match any environment variable
+    private static final String NOT_FOUND = new String();
+
+    // the environment of the process can not change once it is started
+    private final transient Map<String, String> properties;
+    // property names already looked up, mapped to the value of their environment variable or NOT_FOUND
+    private final transient ConcurrentMap<String, String> resolved = new ConcurrentHashMap<>();
+
     EnvConfigSource() {
+        this(System.getenv());
+    }
+
+    EnvConfigSource(Map<String, String> env) {
+        properties = Collections.unmodifiableMap(new HashMap<>(env));
     }
 
     @Override
     public Map<String, String> getProperties() {
-        return Collections.unmodifiableMap(System.getenv());
+        return properties;
     }
 
     @Override
@@ -47,13 +70,74 @@ public class EnvConfigSource implements ConfigSource, Serializable {
         return 300;
     }
 
+    /**
+     * Return the value of the environment variable matching the property name.
+     *
+     * The environment variables are searched for the property name, then for the name where each non alphanumeric
+     * character is replaced by {@code _} (e.g. {@code a_b_c} for {@code a.b-c}) and finally for that name in upper case
+     * (e.g. {@code A_B_C}).
+     */
     @Override
     public String getValue(String name) {
-        return System.getenv(name);
+        if (name == null) {
+            return null;
+        }
+        String value = resolved.get(name);
+        if (value == null) {
+            value = resolve(name);
+            if (resolved.size() < MAX_RESOLVED_NAMES) {
+                resolved.putIfAbsent(name, value);
+            }
+        }
+        return value == NOT_FOUND ? null : value;
+    }
+
+    private String resolve(String name) {
+        String value = properties.get(name);
+        if (value != null) {
+            return value;
+        }
+        String sanitized = sanitize(name);
+        if (sanitized != name) {
+            value = properties.get(sanitized);
+            if (value != null) {
+                return value;
+            }
+        }
+        String upperCase = sanitized.toUpperCase(Locale.ROOT);
+        if (!upperCase.equals(sanitized)) {
+            value = properties.get(upperCase);
+            if (value != null) {
+                return value;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @return the name where each non alphanumeric character is replaced by {@code _}
+     * or the same instance if it has none.
+     */
+    private static String sanitize(String name) {
+        char[] chars = null;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= 'A' && c <= 'Z') && !(c >= '0' && c <= '9') && c != '_') {
+                if (chars == null) {
+                    chars = name.toCharArray();
+                }
+                chars[i] = '_';
+            }
+        }
+        return chars == null ? name : new String(chars);
     }
 
     @Override
     public String getName() {
         return "EnvConfigSource";
     }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+
+import org.eclipse.microprofile.config.spi.Converter;
+
+/**
+ * Converters for the types that have no registered converter but can be created from a String.
+ */
+class ImplicitConverters {
+
+    private static final MethodType CONVERTER_TYPE = MethodType.methodType(Object.class, String.class);
+
+    private ImplicitConverters() {
+    }
+
+    /**
+     * Find the first public method or constructor of the type that can create an instance of it from a String:
+     * <ol>
+     *     <li>a {@code static T of(String)} method</li>
+     *     <li>a {@code static T valueOf(String)} method (which includes enums)</li>
+     *     <li>a {@code static T parse(CharSequence)} method</li>
+     *     <li>a {@code T(String)} constructor</li>
+     * </ol>
+     *
+     * @return a converter that invokes it or {@code null} if the type has none of them
+     */
+    static <T> Converter<T> getConverter(Class<T> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || !Modifier.isPublic(type.getModifiers())) {
+            return null;
+        }
+        MethodHandle handle = findStatic(type, "of", String.class);
+        if (handle == null) {
+            handle = findStatic(type, "valueOf", String.class);
+        }
+        if (handle == null) {
+            handle = findStatic(type, "parse", CharSequence.class);
+        }
+        if (handle == null && !Modifier.isAbstract(type.getModifiers())) {
+            try {
+                handle = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class, String.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                return null;
+            }
+        }
+        return handle != null ? new MethodHandleConverter<>(handle.asType(CONVERTER_TYPE)) : null;
+    }
+
+    private static MethodHandle findStatic(Class<?> type, String name, Class<?> parameterType) {
+        try {
+            return MethodHandles.publicLookup().findStatic(type, name, MethodType.methodType(type, parameterType));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static final class MethodHandleConverter<T> implements Converter<T> {
+        // (String)Object
+        private final MethodHandle handle;
+
+        MethodHandleConverter(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public T convert(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return (T) (Object) handle.invokeExact(value);
+            } catch (IllegalArgumentException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalArgumentException(t);
+            }
+        }
+    }
+}
@@ -44,6 +44,7 @@ public class PropertiesConfigSource implements ConfigSource, Serializable {
     private final Map<String, String> properties;
     private final String source;
     private final int ordinal;
+    private transient Map<String, String> unmodifiableProperties;
 
     public PropertiesConfigSource(URL url) throws IOException {
         this.source = url.toString();
@@ -72,7 +73,12 @@ public class PropertiesConfigSource implements ConfigSource, Serializable {
 
     @Override
     public Map<String, String> getProperties() {
-        return Collections.unmodifiableMap(properties);
+        Map<String, String> view = unmodifiableProperties;
+        if (view == null) {
+            view = Collections.unmodifiableMap(properties);
+            unmodifiableProperties = view;
+        }
+        return view;
     }
 
     @Override
@@ -23,8 +23,11 @@
 package org.wildfly.microprofile.config;
 
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.microprofile.config.spi.ConfigSource;
 
@@ -33,13 +36,37 @@ import org.eclipse.microprofile.config.spi.ConfigSource;
  */
 class SysPropConfigSource implements ConfigSource, Serializable {
 
+    /**
+     * System properties are global to the JVM: all the configs share this config source.
+     */
+    static final SysPropConfigSource INSTANCE = new SysPropConfigSource();
+
+    // maximum time a copy of the system properties is reused when their number has not changed
+    static final long REFRESH_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private transient volatile Snapshot snapshot;
+
     SysPropConfigSource() {
     }
 
+    /**
+     * Return a copy of the system properties.
+     *
+     * The same copy is returned as long as the system properties have the same number of entries
+     * and it is not older than one second: a value changed in place can be seen with a delay.
+     * {@link #getValue(String)} always sees the current value.
+     * When an expired copy has the same content as the system properties, the same map instance is returned
+     * so that the callers that compare maps by identity do not see a change.
+     */
     @Override
     public Map<String, String> getProperties() {
-        Map<String, String> map = new HashMap(System.getProperties());
-        return map;
+        Properties properties = System.getProperties();
+        Snapshot current = snapshot;
+        if (current == null || !current.isValid(properties)) {
+            current = new Snapshot(properties, current);
+            snapshot = current;
+        }
+        return current.map;
     }
 
     @Override
@@ -56,4 +83,29 @@ class SysPropConfigSource implements ConfigSource, Serializable {
     public String getName() {
         return "SysPropConfigSource";
     }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+
+    private static final class Snapshot {
+        final Properties properties;
+        final int size;
+        final long timestamp;
+        final Map<String, String> map;
+
+        Snapshot(Properties properties, Snapshot previous) {
+            this.properties = properties;
+            this.timestamp = System.nanoTime();
+            Map<String, String> copy = new HashMap(properties);
+            this.size = copy.size();
+            this.map = previous != null && previous.map.equals(copy) ? previous.map : Collections.unmodifiableMap(copy);
+        }
+
+        boolean isValid(Properties current) {
+            return current == properties
+                    && current.size() == size
+                    && System.nanoTime() - timestamp < REFRESH_INTERVAL;
+        }
+    }
 }
@@ -22,16 +22,28 @@
 
 package org.wildfly.microprofile.config;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
@@ -43,43 +55,280 @@ import org.eclipse.microprofile.config.spi.Converter;
  */
 public class WildFlyConfig implements Config, Serializable {
 
+    // maximum number of absent property names kept by the negative cache
+    static final int NEGATIVE_CACHE_SIZE = 1024;
+    // minimum time between two checks of the config sources for changes that invalidate the negative cache
+    static final long NEGATIVE_CACHE_VALIDATION_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
     private final List<ConfigSource> configSources;
+    // built-in and implicit converter of each type, resolved once and shared by all the configs
+    private static final ClassValue<Converter> DEFAULT_CONVERTERS = new DefaultConverters();
+
+    // converters registered on this config, the built-in converters are used for the other types
     private Map<Type, Converter> converters;
+    // converter of each type, resolved once, when converters are registered on this config
+    private transient ConcurrentMap<Class<?>, Converter> resolvedConverters = new ConcurrentHashMap<>();
+    /**
+     * Merged view of all the config sources (only when the config is built in snapshot mode).
+     */
+    private final ConcurrentMap<String, ResolvedValue> index;
+    /**
+     * Environment config sources of a snapshot, whose variables also match mangled property names.
+     */
+    private final List<EnvConfigSource> envSources;
+    /**
+     * Maximum size of the index once names that are only matched by mangled environment variables are added to it.
+     */
+    private final int indexLimit;
+    /**
+     * Maximum number of converted values kept in the conversion cache (0 disables the cache).
+     */
+    private final int conversionCacheSize;
+    /**
+     * Whether the names of the properties that are not defined by any config source are remembered.
+     */
+    private final boolean negativeCache;
+    private transient ConcurrentMap<ConversionKey, ConvertedValue> conversionCache = new ConcurrentHashMap<>();
+    private transient volatile PropertyNames propertyNames;
+    private transient volatile AbsentNames absentNames;
 
     WildFlyConfig(List<ConfigSource> configSources, List<Converter> converters) {
+        this(configSources, converters, false, 0, false);
+    }
+
+    WildFlyConfig(List<ConfigSource> configSources, List<Converter> converters, boolean snapshot, int conversionCacheSize, boolean negativeCache) {
         this.configSources = configSources;
-        this.converters = new HashMap<>(Converters.ALL_CONVERTERS);
+        this.converters = new HashMap<>();
         addConverters(converters);
+        this.envSources = new ArrayList<>();
+        if (snapshot) {
+            for (ConfigSource configSource : configSources) {
+                if (configSource instanceof EnvConfigSource) {
+                    envSources.add((EnvConfigSource) configSource);
+                }
+            }
+            this.index = buildIndex(configSources, envSources.isEmpty());
+            this.indexLimit = index.size() + NEGATIVE_CACHE_SIZE;
+        } else {
+            this.index = null;
+            this.indexLimit = 0;
+        }
+        this.conversionCacheSize = conversionCacheSize;
+        // the snapshot index already resolves absent properties with a single lookup
+        this.negativeCache = negativeCache && !snapshot;
     }
 
     @Override
     public <T> T getValue(String name, Class<T> aClass) {
-        for (ConfigSource configSource : configSources) {
-            String value = configSource.getValue(name);
-            if (value != null) {
-                return convert(value, aClass);
-            }
+        String value = findValue(name);
+        if (value != null) {
+            return convert(name, value, aClass);
         }
-        throw new NoSuchElementException("Property " + name + " not found");
+        throw propertyNotFound(name);
     }
 
     @Override
     public <T> Optional<T> getOptionalValue(String name, Class<T> aClass) {
-        for (ConfigSource configSource : configSources) {
-            String value = configSource.getValue(name);
-            // treat empty value as null
-            if (value != null && value.length() > 0) {
-                return Optional.of(convert(value, aClass));
-            }
+        String value = findOptionalValue(name);
+        if (value != null) {
+            return Optional.of(convert(name, value, aClass));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Return a handle to the property to look it up repeatedly. If this config is a snapshot, the lookups
+     * through the key need no map lookup. If the conversion cache is enabled, the key keeps the last converted value.
+     */
+    public ConfigKey key(String name) {
+        return new ConfigKey(this, name, index != null ? resolve(name) : null);
+    }
+
+    /**
+     * Same as {@link #getValue(String, Class)} for a key obtained from this config.
+     */
+    public <T> T getValue(ConfigKey key, Class<T> aClass) {
+        String value = findValue(key);
+        if (value != null) {
+            return convert(key, value, aClass);
+        }
+        throw propertyNotFound(key.getName());
+    }
+
+    /**
+     * Same as {@link #getOptionalValue(String, Class)} for a key obtained from this config.
+     */
+    public <T> Optional<T> getOptionalValue(ConfigKey key, Class<T> aClass) {
+        String value = findOptionalValue(key);
+        if (value != null) {
+            return Optional.of(convert(key, value, aClass));
         }
         return Optional.empty();
     }
 
+    /**
+     * Return the elements of a comma-separated property value.
+     *
+     * @throws NoSuchElementException if the property is not defined
+     * @see ArrayConverter
+     */
+    public <T> List<T> getValues(String name, Class<T> itemType) {
+        return Arrays.asList((T[]) getValue(name, arrayType(itemType)));
+    }
+
+    /**
+     * Return the elements of a comma-separated property value if the property is defined and not empty.
+     *
+     * @see ArrayConverter
+     */
+    public <T> Optional<List<T>> getOptionalValues(String name, Class<T> itemType) {
+        return getOptionalValue(name, arrayType(itemType)).map(array -> Arrays.asList((T[]) array));
+    }
+
+    private static Class<?> arrayType(Class<?> itemType) {
+        if (itemType.isPrimitive()) {
+            throw new IllegalArgumentException("Can not create a list of " + itemType);
+        }
+        return Array.newInstance(itemType, 0).getClass();
+    }
+
+    /**
+     * Return the value of the property as an {@code int} without boxing it.
+     *
+     * @throws NoSuchElementException if the property is not defined
+     */
+    public int getInt(String name) {
+        String value = findValue(name);
+        if (value == null) {
+            throw propertyNotFound(name);
+        }
+        return toInt(name, value);
+    }
+
+    /**
+     * Return the value of the property as an {@code int} or the {@code defaultValue} if the property is not defined or empty.
+     */
+    public int getInt(String name, int defaultValue) {
+        String value = findOptionalValue(name);
+        return value != null ? toInt(name, value) : defaultValue;
+    }
+
+    /**
+     * Return the value of the property as a {@code long} without boxing it.
+     *
+     * @throws NoSuchElementException if the property is not defined
+     */
+    public long getLong(String name) {
+        String value = findValue(name);
+        if (value == null) {
+            throw propertyNotFound(name);
+        }
+        return toLong(name, value);
+    }
+
+    /**
+     * Return the value of the property as a {@code long} or the {@code defaultValue} if the property is not defined or empty.
+     */
+    public long getLong(String name, long defaultValue) {
+        String value = findOptionalValue(name);
+        return value != null ? toLong(name, value) : defaultValue;
+    }
+
+    /**
+     * Return the value of the property as a {@code double} without boxing it.
+     *
+     * @throws NoSuchElementException if the property is not defined
+     */
+    public double getDouble(String name) {
+        String value = findValue(name);
+        if (value == null) {
+            throw propertyNotFound(name);
+        }
+        return toDouble(name, value);
+    }
+
+    /**
+     * Return the value of the property as a {@code double} or the {@code defaultValue} if the property is not defined or empty.
+     */
+    public double getDouble(String name, double defaultValue) {
+        String value = findOptionalValue(name);
+        return value != null ? toDouble(name, value) : defaultValue;
+    }
+
+    /**
+     * Return the value of the property as a {@code boolean} without boxing it.
+     *
+     * @throws NoSuchElementException if the property is not defined
+     */
+    public boolean getBoolean(String name) {
+        String value = findValue(name);
+        if (value == null) {
+            throw propertyNotFound(name);
+        }
+        return toBoolean(name, value);
+    }
+
+    /**
+     * Return the value of the property as a {@code boolean} or the {@code defaultValue} if the property is not defined or empty.
+     */
+    public boolean getBoolean(String name, boolean defaultValue) {
+        String value = findOptionalValue(name);
+        return value != null ? toBoolean(name, value) : defaultValue;
+    }
+
+    /**
+     * Return a read-only set of the names of all the properties.
+     *
+     * The set is reused as long as every config source returns the same properties map with the same size.
+     */
     @Override
     public Iterable<String> getPropertyNames() {
-        Set<String> names = new HashSet<>();
-        for (ConfigSource configSource : configSources) {
-            names.addAll(configSource.getProperties().keySet());
+        return propertyNames().names;
+    }
+
+    /**
+     * Return the names of the properties that start with the prefix, in alphabetical order.
+     *
+     * The names are found with a binary search over the sorted property names.
+     *
+     * @param prefix the prefix of the names, e.g. {@code datasource.orders.}
+     * @return a read-only list of the names
+     */
+    public List<String> getPropertyNames(String prefix) {
+        String[] sorted = propertyNames().sorted();
+        int from = Arrays.binarySearch(sorted, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int to = from;
+        while (to < sorted.length && sorted[to].startsWith(prefix)) {
+            to++;
+        }
+        return Collections.unmodifiableList(Arrays.asList(sorted).subList(from, to));
+    }
+
+    /**
+     * Return the values of the properties whose names start with the prefix, sorted by names.
+     *
+     * @param prefix the prefix of the names, e.g. {@code datasource.orders.}
+     * @return a map of the property names to their values
+     */
+    public Map<String, String> getProperties(String prefix) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        for (String name : getPropertyNames(prefix)) {
+            String value = findValue(name);
+            if (value != null) {
+                properties.put(name, value);
+            }
+        }
+        return properties;
+    }
+
+    private PropertyNames propertyNames() {
+        PropertyNames names = propertyNames;
+        if (names == null || !names.isValid(configSources)) {
+            names = new PropertyNames(configSources);
+            propertyNames = names;
         }
         return names;
     }
@@ -98,8 +347,269 @@ public class WildFlyConfig implements Config, Serializable {
         return null;
     }
 
+    /**
+     * Convert the value of the named property, reusing the result of a previous conversion
+     * if the property still has the same value.
+     */
+    private <T> T convert(String name, String value, Class<T> asType) {
+        // arrays are mutable and can not be shared between lookups
+        if (conversionCacheSize <= 0 || asType.isArray()) {
+            return convert(value, asType);
+        }
+        ConversionKey key = new ConversionKey(name, asType);
+        ConvertedValue cached = conversionCache.get(key);
+        if (cached != null && cached.value.equals(value)) {
+            return (T) cached.converted;
+        }
+        T converted = convert(value, asType);
+        // once the cache is full, only entries whose value has changed are replaced
+        if (cached != null || conversionCache.size() < conversionCacheSize) {
+            conversionCache.put(key, new ConvertedValue(value, converted));
+        }
+        return converted;
+    }
+
+    // the primitive accessors parse the value directly unless a custom converter has been registered for the boxed type
+
+    private int toInt(String name, String value) {
+        if (converters.isEmpty() || resolveConverter(int.class) == Converters.INTEGER_CONVERTER) {
+            return Integer.parseInt(value);
+        }
+        return convert(name, value, int.class);
+    }
+
+    private long toLong(String name, String value) {
+        if (converters.isEmpty() || resolveConverter(long.class) == Converters.LONG_CONVERTER) {
+            return Long.parseLong(value);
+        }
+        return convert(name, value, long.class);
+    }
+
+    private double toDouble(String name, String value) {
+        if (converters.isEmpty() || resolveConverter(double.class) == Converters.DOUBLE_CONVERTER) {
+            return Double.parseDouble(value);
+        }
+        return convert(name, value, double.class);
+    }
+
+    private boolean toBoolean(String name, String value) {
+        if (converters.isEmpty() || resolveConverter(boolean.class) == Converters.BOOLEAN_CONVERTER) {
+            return Converters.parseBoolean(value);
+        }
+        return convert(name, value, boolean.class);
+    }
+
+    private static NoSuchElementException propertyNotFound(String name) {
+        return new NoSuchElementException("Property " + name + " not found");
+    }
+
+    /**
+     * @return the value of the config source with the highest ordinal that defines the property or {@code null}
+     */
+    private String findValue(String name) {
+        if (index != null) {
+            ResolvedValue resolved = resolve(name);
+            return resolved != null ? resolved.value : null;
+        }
+        if (negativeCache && isKnownAbsent(name)) {
+            return null;
+        }
+        for (ConfigSource configSource : configSources) {
+            String value = configSource.getValue(name);
+            if (value != null) {
+                return value;
+            }
+        }
+        if (negativeCache) {
+            absentNames().add(name);
+        }
+        return null;
+    }
+
+    private String findValue(ConfigKey key) {
+        checkKey(key);
+        if (index != null) {
+            return key.resolved != null ? key.resolved.value : null;
+        }
+        return findValue(key.getName());
+    }
+
+    private String findOptionalValue(ConfigKey key) {
+        checkKey(key);
+        if (index != null) {
+            ResolvedValue resolved = key.resolved;
+            if (resolved != null && resolved.value.isEmpty()) {
+                resolved = resolved.nonEmpty;
+            }
+            return resolved != null ? resolved.value : null;
+        }
+        return findOptionalValue(key.getName());
+    }
+
+    private void checkKey(ConfigKey key) {
+        if (key.config != this) {
+            throw new IllegalArgumentException(key + " was not created by this config");
+        }
+    }
+
+    /**
+     * Same as {@link #convert(String, String, Class)} but the last conversion is kept by the key.
+     */
+    private <T> T convert(ConfigKey key, String value, Class<T> asType) {
+        if (conversionCacheSize <= 0 || asType.isArray()) {
+            return convert(value, asType);
+        }
+        ConfigKey.Conversion last = key.conversion;
+        if (last != null && last.type == asType && last.value.equals(value)) {
+            return (T) last.converted;
+        }
+        T converted = convert(key.getName(), value, asType);
+        key.conversion = new ConfigKey.Conversion(value, asType, converted);
+        return converted;
+    }
+
+    /**
+     * Same as {@link #findValue(String)} but empty values are treated as null and are skipped.
+     */
+    private String findOptionalValue(String name) {
+        if (index != null) {
+            ResolvedValue resolved = resolve(name);
+            if (resolved != null && resolved.value.isEmpty()) {
+                resolved = resolved.nonEmpty;
+            }
+            return resolved != null ? resolved.value : null;
+        }
+        if (negativeCache && isKnownAbsent(name)) {
+            return null;
+        }
+        boolean defined = false;
+        for (ConfigSource configSource : configSources) {
+            String value = configSource.getValue(name);
+            // treat empty value as null
+            if (value != null && value.length() > 0) {
+                return value;
+            }
+            defined |= value != null;
+        }
+        if (negativeCache && !defined) {
+            absentNames().add(name);
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code true} if the property is in the negative cache and the cache is still valid.
+     *
+     * The cache is only validated when it contains the name so that the lookups of the defined properties
+     * do not pay for it.
+     */
+    private boolean isKnownAbsent(String name) {
+        AbsentNames absent = absentNames;
+        return absent != null && absent.names.contains(name) && absentNames().names.contains(name);
+    }
+
+    /**
+     * Return the negative cache, after discarding it if the config sources have changed since it was created.
+     *
+     * The config sources are checked at most once per {@link #NEGATIVE_CACHE_VALIDATION_INTERVAL}
+     * so a property added to a config source can remain hidden during this interval.
+     * The check does not read the values of a {@link DirConfigSource} that are memory-mapped or lazily read.
+     */
+    private AbsentNames absentNames() {
+        AbsentNames absent = absentNames;
+        long now = System.nanoTime();
+        if (absent == null || now - absent.validated > NEGATIVE_CACHE_VALIDATION_INTERVAL) {
+            if (absent == null || !absent.sources.isValid(configSources)) {
+                absent = new AbsentNames(new SourceVersions(configSources), now);
+                absentNames = absent;
+            } else {
+                absent.validated = now;
+            }
+        }
+        return absent;
+    }
+
+    private static ConcurrentMap<String, ResolvedValue> buildIndex(List<ConfigSource> configSources, boolean complete) {
+        Map<String, ResolvedValue> index = new HashMap<>();
+        // sources are sorted by descending ordinals: the first source to define a property wins
+        for (ConfigSource configSource : configSources) {
+            for (Map.Entry<String, String> entry : configSource.getProperties().entrySet()) {
+                String value = entry.getValue();
+                if (value == null) {
+                    continue;
+                }
+                ResolvedValue resolved = index.get(entry.getKey());
+                if (resolved == null) {
+                    index.put(entry.getKey(), new ResolvedValue(value, configSource, complete));
+                } else if (resolved.value.isEmpty() && resolved.nonEmpty == null && !value.isEmpty()) {
+                    // keep track of the value that getOptionalValue would have returned
+                    resolved.nonEmpty = new ResolvedValue(value, configSource, complete);
+                }
+            }
+        }
+        return new ConcurrentHashMap<>(index);
+    }
+
+    /**
+     * @return the value of the property in the snapshot index or {@code null}.
+     *
+     * Environment variables also match mangled property names (see {@link EnvConfigSource#getValue(String)})
+     * that can not be listed when the index is built: the first lookup of a name checks the environment config sources
+     * and its result replaces the entry of the index (a bounded number of names that are not in the index are added).
+     */
+    private ResolvedValue resolve(String name) {
+        ResolvedValue resolved = index.get(name);
+        if (resolved == null ? envSources.isEmpty() : resolved.complete) {
+            return resolved == null || resolved.value == null ? null : resolved;
+        }
+        List<ResolvedValue> candidates = new ArrayList<>();
+        for (ResolvedValue candidate = resolved; candidate != null; candidate = candidate.nonEmpty) {
+            candidates.add(candidate);
+        }
+        for (EnvConfigSource envSource : envSources) {
+            String value = envSource.getValue(name);
+            if (value != null && !contains(candidates, envSource)) {
+                candidates.add(new ResolvedValue(value, envSource, true));
+            }
+        }
+        ResolvedValue result = ResolvedValue.ABSENT;
+        if (!candidates.isEmpty()) {
+            candidates.sort(Comparator.comparingInt(candidate -> indexOf(candidate.source)));
+            ResolvedValue first = candidates.get(0);
+            result = new ResolvedValue(first.value, first.source, true);
+            for (ResolvedValue candidate : candidates) {
+                if (result.value.isEmpty() && !candidate.value.isEmpty()) {
+                    result.nonEmpty = new ResolvedValue(candidate.value, candidate.source, true);
+                    break;
+                }
+            }
+        }
+        if (index.replace(name, result) == null && index.size() < indexLimit) {
+            index.putIfAbsent(name, result);
+        }
+        return result.value == null ? null : result;
+    }
+
+    private static boolean contains(List<ResolvedValue> candidates, ConfigSource source) {
+        for (ResolvedValue candidate : candidates) {
+            if (candidate.source == source) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(ConfigSource source) {
+        for (int i = 0; i < configSources.size(); i++) {
+            if (configSources.get(i) == source) {
+                return i;
+            }
+        }
+        return configSources.size();
+    }
+
     private <T> Converter getConverter(Class<T> asType) {
-        Converter converter = converters.get(asType);
+        Converter converter = resolveConverter(asType);
         if (converter == null) {
             throw new IllegalArgumentException("No Converter registered for class " + asType);
         }
@@ -136,4 +646,229 @@ public class WildFlyConfig implements Config, Serializable {
 
         return getConverterType(clazz.getSuperclass());
     }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        conversionCache = new ConcurrentHashMap<>();
+        resolvedConverters = new ConcurrentHashMap<>();
+    }
+
+    private Converter resolveConverter(Class<?> type) {
+        if (converters.isEmpty()) {
+            return DEFAULT_CONVERTERS.get(type);
+        }
+        Converter converter = resolvedConverters.get(type);
+        if (converter == null) {
+            converter = computeConverter(type);
+            if (converter != null) {
+                Converter existing = resolvedConverters.putIfAbsent(type, converter);
+                if (existing != null) {
+                    converter = existing;
+                }
+            }
+        }
+        return converter;
+    }
+
+    /**
+     * A converter registered on the config takes precedence over the built-in converter of the type,
+     * which takes precedence over an implicit converter. A converter registered for a boxed type also converts
+     * its primitive type. Arrays are converted with the converter of their component type.
+     */
+    private Converter computeConverter(Class<?> type) {
+        Converter converter = converters.get(type);
+        if (converter == null && type.isPrimitive()) {
+            converter = converters.get(MethodType.methodType(type).wrap().returnType());
+        }
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isArray()) {
+            Converter componentConverter = resolveConverter(type.getComponentType());
+            return componentConverter != null ? new ArrayConverter(type.getComponentType(), componentConverter) : null;
+        }
+        return DEFAULT_CONVERTERS.get(type);
+    }
+
+    /**
+     * Resolve the built-in or implicit converter of a type the first time it is converted by any config.
+     */
+    private static final class DefaultConverters extends ClassValue<Converter> {
+        @Override
+        protected Converter computeValue(Class<?> type) {
+            Converter converter = Converters.ALL_CONVERTERS.get(type);
+            if (converter == null && type.isArray()) {
+                Converter componentConverter = get(type.getComponentType());
+                return componentConverter != null ? new ArrayConverter(type.getComponentType(), componentConverter) : null;
+            }
+            return converter != null ? converter : ImplicitConverters.getConverter(type);
+        }
+    }
+
+    /**
+     * The value of a property in the snapshot index and the config source it comes from.
+     */
+    static final class ResolvedValue implements Serializable {
+        // marks the names that are not defined by any config source
+        static final ResolvedValue ABSENT = new ResolvedValue(null, null, true);
+
+        final String value;
+        final ConfigSource source;
+        // false until the environment config sources have been checked for the mangled name
+        final boolean complete;
+        // set only when the value is empty and a lower ordinal source defines a non-empty value
+        ResolvedValue nonEmpty;
+
+        ResolvedValue(String value, ConfigSource source, boolean complete) {
+            this.value = value;
+            this.source = source;
+            this.complete = complete;
+        }
+    }
+
+    /**
+     * Names of all the properties and the properties maps of the config sources they were read from.
+     */
+    private static final class PropertyNames {
+        final Map<String, String>[] properties;
+        final int[] sizes;
+        final Set<String> names;
+        // sorted copy of the names, created by the first query by prefix
+        private volatile String[] sorted;
+
+        PropertyNames(List<ConfigSource> configSources) {
+            properties = new Map[configSources.size()];
+            sizes = new int[properties.length];
+            Set<String> names = new HashSet<>();
+            for (int i = 0; i < properties.length; i++) {
+                properties[i] = configSources.get(i).getProperties();
+                sizes[i] = properties[i].size();
+                names.addAll(properties[i].keySet());
+            }
+            this.names = Collections.unmodifiableSet(names);
+        }
+
+        String[] sorted() {
+            String[] result = sorted;
+            if (result == null) {
+                result = names.toArray(new String[names.size()]);
+                Arrays.sort(result);
+                sorted = result;
+            }
+            return result;
+        }
+
+        boolean isValid(List<ConfigSource> configSources) {
+            for (int i = 0; i < properties.length; i++) {
+                Map<String, String> current = configSources.get(i).getProperties();
+                if (current != properties[i] || current.size() != sizes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Versions of the config sources: the modification count of a {@link DirConfigSource}, whose
+     * {@link DirConfigSource#getProperties()} would read all its files, or the properties map of the other config sources and its size.
+     */
+    private static final class SourceVersions {
+        final Object[] versions;
+        final int[] sizes;
+
+        SourceVersions(List<ConfigSource> configSources) {
+            versions = new Object[configSources.size()];
+            sizes = new int[versions.length];
+            for (int i = 0; i < versions.length; i++) {
+                ConfigSource configSource = configSources.get(i);
+                if (configSource instanceof DirConfigSource) {
+                    versions[i] = ((DirConfigSource) configSource).getModificationCount();
+                } else {
+                    Map<String, String> properties = configSource.getProperties();
+                    versions[i] = properties;
+                    sizes[i] = properties.size();
+                }
+            }
+        }
+
+        boolean isValid(List<ConfigSource> configSources) {
+            for (int i = 0; i < versions.length; i++) {
+                ConfigSource configSource = configSources.get(i);
+                if (configSource instanceof DirConfigSource) {
+                    if (!versions[i].equals(((DirConfigSource) configSource).getModificationCount())) {
+                        return false;
+                    }
+                } else {
+                    Map<String, String> current = configSource.getProperties();
+                    if (current != versions[i] || current.size() != sizes[i]) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Names of the properties that no config source defined when the config sources had the given versions.
+     */
+    private static final class AbsentNames {
+        final SourceVersions sources;
+        final Set<String> names = ConcurrentHashMap.newKeySet();
+        volatile long validated;
+
+        AbsentNames(SourceVersions sources, long validated) {
+            this.sources = sources;
+            this.validated = validated;
+        }
+
+        void add(String name) {
+            if (names.size() < NEGATIVE_CACHE_SIZE) {
+                names.add(name);
+            }
+        }
+    }
+
+    private static final class ConversionKey {
+        private final String name;
+        private final Class<?> type;
+        private final int hash;
+
+        ConversionKey(String name, Class<?> type) {
+            this.name = name;
+            this.type = type;
+            this.hash = 31 * name.hashCode() + type.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ConversionKey)) {
+                return false;
+            }
+            ConversionKey other = (ConversionKey) o;
+            return type == other.type && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * A converted value and the raw value it was converted from.
+     */
+    private static final class ConvertedValue {
+        final String value;
+        final Object converted;
+
+        ConvertedValue(String value, Object converted) {
+            this.value = value;
+            this.converted = converted;
+        }
+    }
 }
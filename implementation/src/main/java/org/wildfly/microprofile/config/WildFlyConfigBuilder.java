@@ -22,11 +22,20 @@
 
 package org.wildfly.microprofile.config;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
+import java.util.Set;
 
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.spi.ConfigBuilder;
@@ -41,6 +50,10 @@ public class WildFlyConfigBuilder implements ConfigBuilder {
 
     private static final String META_INF_MICROPROFILE_CONFIG_PROPERTIES = "META-INF/microprofile-config.properties";
     private static final String WEB_INF_MICROPROFILE_CONFIG_PROPERTIES = "WEB-INF/classes/META-INF/microprofile-config.properties";
+    private static final String META_INF_SERVICES = "META-INF/services/";
+
+    // results of the class path scans (provider class names), shared by all the builders of a class loader
+    private static final ClassLoaderMap<Discovery> DISCOVERIES = new ClassLoaderMap<>();
 
     // sources are not sorted by their ordinals
     private List<ConfigSource> sources = new ArrayList<>();
@@ -49,6 +62,9 @@ public class WildFlyConfigBuilder implements ConfigBuilder {
     private boolean addDefaultSources = false;
     private boolean addDiscoveredSources = false;
     private boolean addDiscoveredConverters = false;
+    private boolean snapshot = false;
+    private int conversionCacheSize = 0;
+    private boolean negativeCache = false;
 
     public WildFlyConfigBuilder() {
     }
@@ -65,31 +81,18 @@ public class WildFlyConfigBuilder implements ConfigBuilder {
         return this;
     }
 
-    private List<ConfigSource> discoverSources() {
-        List<ConfigSource> discoveredSources = new ArrayList<>();
-        ServiceLoader<ConfigSource> configSourceLoader = ServiceLoader.load(ConfigSource.class, classLoader);
-        configSourceLoader.forEach(configSource -> {
-            discoveredSources.add(configSource);
-        });
-
-        // load all ConfigSources from ConfigSourceProviders
-        ServiceLoader<ConfigSourceProvider> configSourceProviderLoader = ServiceLoader.load(ConfigSourceProvider.class, classLoader);
-        configSourceProviderLoader.forEach(configSourceProvider -> {
-            configSourceProvider.getConfigSources(classLoader)
-                    .forEach(configSource -> {
-                        discoveredSources.add(configSource);
-                    });
-        });
-        return discoveredSources;
+    private static Discovery discovery(ClassLoader classLoader) {
+        return DISCOVERIES.computeIfAbsent(classLoader, k -> new Discovery());
     }
 
-    private List<Converter> discoverConverters() {
-        List<Converter> converters = new ArrayList<>();
-        ServiceLoader<Converter> converterLoader = ServiceLoader.load(Converter.class, classLoader);
-        converterLoader.forEach(converter -> {
-            converters.add(converter);
-        });
-        return converters;
+    /**
+     * Forget the config sources and converters discovered for the class loader so that
+     * its class path is scanned again the next time a config is built for it.
+     */
+    static void forgetDiscovered(ClassLoader classLoader) {
+        if (classLoader != null) {
+            DISCOVERIES.remove(classLoader);
+        }
     }
 
     @Override
@@ -98,17 +101,55 @@ public class WildFlyConfigBuilder implements ConfigBuilder {
         return this;
     }
 
-    private List<ConfigSource> getDefaultSources() {
+    private static List<ConfigSource> getDefaultSources(ClassLoader classLoader) {
         List<ConfigSource> defaultSources = new ArrayList<>();
 
-        defaultSources.add(new EnvConfigSource());
-        defaultSources.add(new SysPropConfigSource());
-        defaultSources.addAll(new PropertiesConfigSourceProvider(META_INF_MICROPROFILE_CONFIG_PROPERTIES, true, classLoader).getConfigSources(classLoader));
-        defaultSources.addAll(new PropertiesConfigSourceProvider(WEB_INF_MICROPROFILE_CONFIG_PROPERTIES, true, classLoader).getConfigSources(classLoader));
+        defaultSources.add(EnvConfigSource.INSTANCE);
+        defaultSources.add(SysPropConfigSource.INSTANCE);
+        defaultSources.addAll(discovery(classLoader).propertiesSources(classLoader));
 
         return defaultSources;
     }
 
+    /**
+     * Build a config that reads all the properties of its config sources once and resolves
+     * every lookup against this snapshot instead of querying each config source.
+     *
+     * Changes made to the config sources after the config is built are not visible.
+     */
+    public WildFlyConfigBuilder snapshot() {
+        snapshot = true;
+        return this;
+    }
+
+    /**
+     * Set the maximum number of converted values that the config keeps for reuse
+     * as long as their properties keep the same value.
+     *
+     * The cache is disabled by default: once it is enabled, repeated lookups of a property return the same instance,
+     * which must only be used if the converters produce immutable values and have no side effects.
+     *
+     * @param maxSize the size of the cache, {@code 0} disables it.
+     */
+    public WildFlyConfigBuilder withConversionCache(int maxSize) {
+        conversionCacheSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Remember the names of the properties that are not defined by any config source so that
+     * looking them up again does not query each config source.
+     *
+     * The config sources are checked for changes at most once per second: a property that is added
+     * to a config source after it has been looked up can remain undefined for up to one second.
+     * A {@link DirConfigSource} is checked with its modification count so that the check does not read
+     * the files that are memory-mapped or lazily read.
+     */
+    public WildFlyConfigBuilder withNegativeCache() {
+        negativeCache = true;
+        return this;
+    }
+
     @Override
     public ConfigBuilder forClassLoader(ClassLoader classLoader) {
         this.classLoader = classLoader;
@@ -133,15 +174,17 @@ public class WildFlyConfigBuilder implements ConfigBuilder {
 
     @Override
     public Config build() {
+        // like ServiceLoader, fall back to the system class loader (e.g. if the thread has no context class loader)
+        ClassLoader cl = classLoader != null ? classLoader : ClassLoader.getSystemClassLoader();
         if (addDiscoveredSources) {
-            sources.addAll(discoverSources());
+            sources.addAll(discovery(cl).sources(cl));
         }
         if (addDefaultSources) {
-            sources.addAll(getDefaultSources());
+            sources.addAll(getDefaultSources(cl));
         }
 
         if (addDiscoveredConverters) {
-            converters.addAll(discoverConverters());
+            converters.addAll(discovery(cl).converters(cl));
         }
 
         Collections.sort(sources, new Comparator<ConfigSource>() {
@@ -151,6 +194,135 @@ public class WildFlyConfigBuilder implements ConfigBuilder {
             }
         });
 
-        return new WildFlyConfig(sources, converters);
+        return new WildFlyConfig(sources, converters, snapshot, conversionCacheSize, negativeCache);
+    }
+
+    /**
+     * Config sources and converters found on the class path of a class loader.
+     *
+     * Only the class names of the service providers are kept: each build gets its own instances of the discovered
+     * config sources and converters, which may be stateful and must not be shared by several configs. The properties
+     * config sources are immutable and are shared.
+     * Each kind is scanned the first time it is needed and then reused by the following builds.
+     * Neither the class loader nor the classes loaded from it are kept so that it can be garbage collected.
+     */
+    private static final class Discovery {
+        private volatile List<String> sourceNames;
+        private volatile List<String> sourceProviderNames;
+        private volatile List<String> converterNames;
+        private volatile List<ConfigSource> propertiesSources;
+
+        List<ConfigSource> sources(ClassLoader classLoader) {
+            List<String> names = sourceNames;
+            List<String> providerNames = sourceProviderNames;
+            if (names == null || providerNames == null) {
+                synchronized (this) {
+                    if (sourceNames == null) {
+                        sourceNames = findProviders(ConfigSource.class, classLoader);
+                    }
+                    if (sourceProviderNames == null) {
+                        sourceProviderNames = findProviders(ConfigSourceProvider.class, classLoader);
+                    }
+                    names = sourceNames;
+                    providerNames = sourceProviderNames;
+                }
+            }
+            List<ConfigSource> discoveredSources = new ArrayList<>();
+            for (String name : names) {
+                discoveredSources.add(newProvider(ConfigSource.class, name, classLoader));
+            }
+            // load all ConfigSources from ConfigSourceProviders
+            for (String name : providerNames) {
+                ConfigSourceProvider configSourceProvider = newProvider(ConfigSourceProvider.class, name, classLoader);
+                configSourceProvider.getConfigSources(classLoader)
+                        .forEach(configSource -> {
+                            discoveredSources.add(configSource);
+                        });
+            }
+            return discoveredSources;
+        }
+
+        List<ConfigSource> propertiesSources(ClassLoader classLoader) {
+            List<ConfigSource> result = propertiesSources;
+            if (result == null) {
+                synchronized (this) {
+                    result = propertiesSources;
+                    if (result == null) {
+                        List<ConfigSource> found = new ArrayList<>();
+                        found.addAll(new PropertiesConfigSourceProvider(META_INF_MICROPROFILE_CONFIG_PROPERTIES, true, classLoader).getConfigSources(classLoader));
+                        found.addAll(new PropertiesConfigSourceProvider(WEB_INF_MICROPROFILE_CONFIG_PROPERTIES, true, classLoader).getConfigSources(classLoader));
+                        propertiesSources = result = Collections.unmodifiableList(found);
+                    }
+                }
+            }
+            return result;
+        }
+
+        List<Converter> converters(ClassLoader classLoader) {
+            List<String> names = converterNames;
+            if (names == null) {
+                synchronized (this) {
+                    names = converterNames;
+                    if (names == null) {
+                        converterNames = names = findProviders(Converter.class, classLoader);
+                    }
+                }
+            }
+            List<Converter> converters = new ArrayList<>();
+            for (String name : names) {
+                converters.add(newProvider(Converter.class, name, classLoader));
+            }
+            return converters;
+        }
+
+        /**
+         * Read the class names of the providers of a service from the {@code META-INF/services} files of the class loader,
+         * in the order that {@link ServiceLoader} would load them.
+         *
+         * The files are parsed here rather than by {@link ServiceLoader}, which only exposes the providers once
+         * they are instantiated, so that the class names can be kept without keeping the instances.
+         */
+        private static List<String> findProviders(Class<?> service, ClassLoader classLoader) {
+            Set<String> names = new LinkedHashSet<>();
+            try {
+                Enumeration<URL> urls = classLoader.getResources(META_INF_SERVICES + service.getName());
+                while (urls.hasMoreElements()) {
+                    URL url = urls.nextElement();
+                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            int comment = line.indexOf('#');
+                            if (comment >= 0) {
+                                line = line.substring(0, comment);
+                            }
+                            line = line.trim();
+                            if (!line.isEmpty()) {
+                                names.add(line);
+                            }
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new ServiceConfigurationError(service.getName() + ": Error reading configuration file", e);
+            }
+            return Collections.unmodifiableList(new ArrayList<>(names));
+        }
+
+        /**
+         * Instantiate a provider with its public no-arg constructor, as {@link ServiceLoader} does.
+         */
+        private static <S> S newProvider(Class<S> service, String name, ClassLoader classLoader) {
+            try {
+                Class<?> providerClass = Class.forName(name, false, classLoader);
+                if (!service.isAssignableFrom(providerClass)) {
+                    throw new ServiceConfigurationError(service.getName() + ": Provider " + name + " not a subtype");
+                }
+                return service.cast(providerClass.getConstructor().newInstance());
+            } catch (ClassNotFoundException e) {
+                throw new ServiceConfigurationError(service.getName() + ": Provider " + name + " not found", e);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new ServiceConfigurationError(service.getName() + ": Provider " + name + " could not be instantiated", e);
+            }
+        }
     }
 }
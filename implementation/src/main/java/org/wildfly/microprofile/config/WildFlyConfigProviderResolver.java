@@ -22,10 +22,6 @@
 
 package org.wildfly.microprofile.config;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
-
 import org.eclipse.microprofile.config.Config;
 import org.eclipse.microprofile.config.spi.ConfigBuilder;
 import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
@@ -37,7 +33,8 @@ public class WildFlyConfigProviderResolver extends ConfigProviderResolver {
 
     public static final WildFlyConfigProviderResolver INSTANCE = new WildFlyConfigProviderResolver();
 
-    private Map<ClassLoader,Config> configsForClassLoader = new HashMap<>();
+    // class loaders are weakly referenced so that the configs of undeployed modules can not leak
+    private final ClassLoaderMap<Config> configsForClassLoader = new ClassLoaderMap<>();
 
     @Override
     public Config getConfig() {
@@ -46,18 +43,12 @@ public class WildFlyConfigProviderResolver extends ConfigProviderResolver {
 
     @Override
     public Config getConfig(ClassLoader classLoader) {
-        Config config = configsForClassLoader.get(classLoader);
-        if (config != null) {
-            return config;
-        } else {
-            config = getBuilder().forClassLoader(classLoader)
-                    .addDefaultSources()
-                    .addDiscoveredSources()
-                    .addDiscoveredConverters()
-                    .build();
-            registerConfig(config, classLoader);
-            return config;
-        }
+        // the config is built only once even if several threads ask for it concurrently
+        return configsForClassLoader.computeIfAbsent(nonNull(classLoader), cl -> getBuilder().forClassLoader(cl)
+                .addDefaultSources()
+                .addDiscoveredSources()
+                .addDiscoveredConverters()
+                .build());
     }
 
     @Override
@@ -67,20 +58,16 @@ public class WildFlyConfigProviderResolver extends ConfigProviderResolver {
 
     @Override
     public void registerConfig(Config config, ClassLoader classLoader) {
-        configsForClassLoader.put(classLoader, config);
+        configsForClassLoader.put(nonNull(classLoader), config);
     }
 
     @Override
     public void releaseConfig(Config config) {
-        Iterator<Map.Entry<ClassLoader, Config>> iterator = configsForClassLoader.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<ClassLoader, Config> entry = iterator.next();
-            if (entry.getValue() == config) {
-                iterator.remove();
-                return;
-            }
-
+        ClassLoader classLoader = configsForClassLoader.removeValue(config);
+        WildFlyConfigBuilder.forgetDiscovered(classLoader);
+    }
 
-        }
+    private static ClassLoader nonNull(ClassLoader classLoader) {
+        return classLoader != null ? classLoader : ClassLoader.getSystemClassLoader();
     }
 }
@@ -22,6 +22,9 @@
 
 package org.wildfly.microprofile.config.inject;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Member;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.time.Duration;
 import java.time.LocalDate;
@@ -30,7 +33,9 @@ import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.enterprise.event.Observes;
@@ -57,6 +62,8 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 public class ConfigExtension implements Extension {
 
     private Set<InjectionPoint> injectionPoints = new HashSet<>();
+    // default keys of the injected members whose @ConfigProperty has no name
+    private final Map<Member, String> defaultKeys = new ConcurrentHashMap<>();
 
     public ConfigExtension() {
     }
@@ -70,6 +77,12 @@ public class ConfigExtension implements Extension {
         ConfigProperty configProperty = pip.getInjectionPoint().getAnnotated().getAnnotation(ConfigProperty.class);
         if (configProperty != null) {
             injectionPoints.add(pip.getInjectionPoint());
+            if (configProperty.name().trim().isEmpty()) {
+                String key = getDefaultKey(pip.getInjectionPoint());
+                if (key != null) {
+                    defaultKeys.put(pip.getInjectionPoint().getMember(), key);
+                }
+            }
         }
     }
 
@@ -94,7 +107,7 @@ public class ConfigExtension implements Extension {
                         && ip.getType() != LocalDateTime.class)
                 .map(ip -> (Class) ip.getType())
                 .collect(Collectors.toSet());
-        types.forEach(type -> abd.addBean(new ConfigInjectionBean(bm, type)));
+        types.forEach(type -> abd.addBean(new ConfigInjectionBean(bm, type, this)));
     }
 
     public void validate(@Observes AfterDeploymentValidation add, BeanManager bm) {
@@ -104,8 +117,14 @@ public class ConfigExtension implements Extension {
         for (InjectionPoint injectionPoint : injectionPoints) {
             Type type = injectionPoint.getType();
             ConfigProperty configProperty = injectionPoint.getAnnotated().getAnnotation(ConfigProperty.class);
+            // List<T> and Set<T> are validated as arrays of T
+            if (type instanceof ParameterizedType
+                    && (((ParameterizedType) type).getRawType() == List.class || ((ParameterizedType) type).getRawType() == Set.class)
+                    && ((ParameterizedType) type).getActualTypeArguments()[0] instanceof Class) {
+                type = Array.newInstance((Class) ((ParameterizedType) type).getActualTypeArguments()[0], 0).getClass();
+            }
             if (type instanceof Class) {
-                String key = getConfigKey(injectionPoint, configProperty);
+                String key = getKey(injectionPoint, configProperty);
 
                 if (!config.getOptionalValue(key, (Class)type).isPresent()) {
                     String defaultValue = configProperty.defaultValue();
@@ -124,24 +143,43 @@ public class ConfigExtension implements Extension {
 
     }
 
+    /**
+     * Same as {@link #getConfigKey(InjectionPoint, ConfigProperty)} but the default key of an injection point
+     * is read from the keys computed when it was processed.
+     */
+    String getKey(InjectionPoint ip, ConfigProperty configProperty) {
+        String key = configProperty.name();
+        if (!key.trim().isEmpty()) {
+            return key;
+        }
+        key = defaultKeys.get(ip.getMember());
+        return key != null ? key : getConfigKey(ip, configProperty);
+    }
+
     static String getConfigKey(InjectionPoint ip, ConfigProperty configProperty) {
         String key = configProperty.name();
         if (!key.trim().isEmpty()) {
             return key;
         }
+        key = getDefaultKey(ip);
+        if (key != null) {
+            return key;
+        }
+        throw new IllegalStateException("Could not find default name for @ConfigProperty InjectionPoint " + ip);
+    }
+
+    /**
+     * @return the canonical name of the class declaring the injected member followed by the name of the member
+     * or {@code null} if the injection point is not a member of a class
+     */
+    private static String getDefaultKey(InjectionPoint ip) {
         if (ip.getAnnotated() instanceof AnnotatedMember) {
             AnnotatedMember member = (AnnotatedMember) ip.getAnnotated();
             AnnotatedType declaringType = member.getDeclaringType();
             if (declaringType != null) {
-                String[] parts = declaringType.getJavaClass().getCanonicalName().split("\\.");
-                StringBuilder sb = new StringBuilder(parts[0]);
-                for (int i = 1; i < parts.length; i++) {
-                    sb.append(".").append(parts[i]);
-                }
-                sb.append(".").append(member.getJavaMember().getName());
-                return sb.toString();
+                return declaringType.getJavaClass().getCanonicalName() + "." + member.getJavaMember().getName();
             }
         }
-        throw new IllegalStateException("Could not find default name for @ConfigProperty InjectionPoint " + ip);
+        return null;
     }
 }
@@ -59,6 +59,7 @@ public class ConfigInjectionBean<T> implements Bean<T>, PassivationCapable {
 
     private final BeanManager bm;
     private final Class clazz;
+    private final ConfigExtension extension;
 
     /**
      * only access via {@link #getConfig(}
@@ -66,8 +67,13 @@ public class ConfigInjectionBean<T> implements Bean<T>, PassivationCapable {
     private Config _config;
 
     public ConfigInjectionBean(BeanManager bm, Class clazz) {
+        this(bm, clazz, null);
+    }
+
+    public ConfigInjectionBean(BeanManager bm, Class clazz, ConfigExtension extension) {
         this.bm = bm;
         this.clazz = clazz;
+        this.extension = extension;
     }
 
     @Override
@@ -95,7 +101,7 @@ public class ConfigInjectionBean<T> implements Bean<T>, PassivationCapable {
         }
         Annotated annotated = ip.getAnnotated();
         ConfigProperty configProperty = annotated.getAnnotation(ConfigProperty.class);
-        String key = ConfigExtension.getConfigKey(ip, configProperty);
+        String key = extension != null ? extension.getKey(ip, configProperty) : ConfigExtension.getConfigKey(ip, configProperty);
         String defaultValue = configProperty.defaultValue();
 
         if (annotated.getBaseType() instanceof ParameterizedType) {
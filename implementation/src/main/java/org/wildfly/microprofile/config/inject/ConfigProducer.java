@@ -24,14 +24,20 @@ package org.wildfly.microprofile.config.inject;
 
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.context.Dependent;
 import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.spi.InjectionPoint;
+import javax.inject.Inject;
 
 import org.wildfly.microprofile.config.WildFlyConfig;
 import org.eclipse.microprofile.config.Config;
@@ -46,6 +52,9 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 @ApplicationScoped
 public class ConfigProducer implements Serializable{
 
+    @Inject
+    private transient ConfigExtension extension;
+
     @Produces
     Config getConfig(InjectionPoint injectionPoint) {
         // return the Config for the TCCL
@@ -106,6 +115,35 @@ public class ConfigProducer implements Serializable{
         return Optional.ofNullable(getValue(injectionPoint, valueType));
     }
 
+    @Dependent
+    @Produces @ConfigProperty
+    <T> List<T> produceListConfigProperty(InjectionPoint injectionPoint) {
+        T[] values = getValues(injectionPoint);
+        return values != null ? Arrays.asList(values) : null;
+    }
+
+    @Dependent
+    @Produces @ConfigProperty
+    <T> Set<T> produceSetConfigProperty(InjectionPoint injectionPoint) {
+        T[] values = getValues(injectionPoint);
+        return values != null ? new LinkedHashSet<>(Arrays.asList(values)) : null;
+    }
+
+    /**
+     * Return the elements of the comma-separated value of the property injected in a {@code List<T>} or a {@code Set<T>}.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T[] getValues(InjectionPoint injectionPoint) {
+        Type type = injectionPoint.getAnnotated().getBaseType();
+        final Class<T> itemType;
+        if (type instanceof ParameterizedType) {
+            itemType = unwrapType(((ParameterizedType) type).getActualTypeArguments()[0]);
+        } else {
+            itemType = (Class<T>) String.class;
+        }
+        return (T[]) getValue(injectionPoint, Array.newInstance(itemType, 0).getClass());
+    }
+
     private <T> Class<T> unwrapType(Type type) {
         if (type instanceof ParameterizedType) {
             type = ((ParameterizedType) type).getRawType();
@@ -141,7 +179,7 @@ public class ConfigProducer implements Serializable{
         for (Annotation qualifier : injectionPoint.getQualifiers()) {
             if (qualifier.annotationType().equals(ConfigProperty.class)) {
                 ConfigProperty configProperty = ((ConfigProperty)qualifier);
-                return ConfigExtension.getConfigKey(injectionPoint, configProperty);
+                return extension != null ? extension.getKey(injectionPoint, configProperty) : ConfigExtension.getConfigKey(injectionPoint, configProperty);
             }
         }
         return null;
@@ -22,19 +22,32 @@
 package org.wildfly.microprofile.config;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * @author <a href="http://jmesnil.net/">Jeff Mesnil</a> (c) 2017 Red Hat inc.
  */
 public class DirConfigSourceTestCase {
 
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
     @Test
     public void testConfigSourceFromDir() throws URISyntaxException {
         URL configDirURL = this.getClass().getResource("configDir");
@@ -44,4 +57,178 @@ public class DirConfigSourceTestCase {
         assertEquals("myValue1", configSource.getValue("myKey1"));
         assertEquals("true", configSource.getValue("myKey2"));
     }
+
+    @Test
+    public void testWatchedDir() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        write(dir.resolve("myKey1"), "myValue1");
+
+        try (DirConfigSource configSource = new DirConfigSource.Builder(dir.toFile()).watch(true).build()) {
+            assertEquals("myValue1", configSource.getValue("myKey1"));
+
+            write(dir.resolve("myKey1"), "updated");
+            write(dir.resolve("myKey2"), "added");
+            awaitValue(configSource, "myKey1", "updated");
+            awaitValue(configSource, "myKey2", "added");
+
+            Files.delete(dir.resolve("myKey2"));
+            awaitValue(configSource, "myKey2", null);
+        }
+    }
+
+    @Test
+    public void testWatchedKubernetesConfigMap() throws Exception {
+        // mimic the layout of a config map mounted by Kubernetes
+        Path dir = tmp.newFolder().toPath();
+        Path firstVersion = Files.createDirectory(dir.resolve("..2017_12_01"));
+        write(firstVersion.resolve("myKey1"), "myValue1");
+        Files.createSymbolicLink(dir.resolve("..data"), Paths.get("..2017_12_01"));
+        Files.createSymbolicLink(dir.resolve("myKey1"), Paths.get("..data/myKey1"));
+
+        try (DirConfigSource configSource = new DirConfigSource.Builder(dir.toFile()).watch(true).build()) {
+            assertEquals("myValue1", configSource.getValue("myKey1"));
+            assertEquals(1, configSource.getProperties().size());
+
+            // update the config map by swapping the ..data link
+            Path secondVersion = Files.createDirectory(dir.resolve("..2017_12_02"));
+            write(secondVersion.resolve("myKey1"), "updated");
+            Files.createSymbolicLink(dir.resolve("..data_tmp"), Paths.get("..2017_12_02"));
+            Files.move(dir.resolve("..data_tmp"), dir.resolve("..data"), StandardCopyOption.ATOMIC_MOVE);
+
+            awaitValue(configSource, "myKey1", "updated");
+            assertEquals(1, configSource.getProperties().size());
+        }
+    }
+
+    @Test
+    public void testRefreshOnlyReadsChangedFiles() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        write(dir.resolve("myKey1"), "myValue1");
+        write(dir.resolve("myKey2"), "myValue2");
+        write(dir.resolve("myKey3"), "myValue3");
+
+        DirConfigSource configSource = new DirConfigSource(dir.toFile(), 100);
+        assertEquals(0, configSource.refresh());
+
+        write(dir.resolve("myKey1"), "updated value");
+        Files.delete(dir.resolve("myKey2"));
+        assertEquals(2, configSource.refresh());
+        assertEquals("updated value", configSource.getValue("myKey1"));
+        assertEquals(null, configSource.getValue("myKey2"));
+        assertEquals("myValue3", configSource.getValue("myKey3"));
+    }
+
+    @Test
+    public void testParallelScan() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        for (int i = 0; i < 100; i++) {
+            write(dir.resolve("myKey" + i), "myValue" + i + "\n");
+        }
+
+        DirConfigSource configSource = new DirConfigSource.Builder(dir.toFile())
+                .withParallelism(4)
+                .build();
+        assertEquals(100, configSource.getProperties().size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("myValue" + i, configSource.getValue("myKey" + i));
+        }
+
+        // the threads of the first scan are reused
+        for (int i = 0; i < 10; i++) {
+            write(dir.resolve("myKey" + i), "updated" + i + "\n");
+            Files.setLastModifiedTime(dir.resolve("myKey" + i), FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        }
+        assertEquals(10, configSource.refresh());
+        assertEquals("updated0", configSource.getValue("myKey0"));
+        configSource.close();
+    }
+
+    @Test
+    public void testLineBreaksArePreserved() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        String pem = "-----BEGIN CERTIFICATE-----\nMIIB\n-----END CERTIFICATE-----";
+        write(dir.resolve("small.pem"), pem + "\n");
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            large.append(pem).append("\r\n");
+        }
+        write(dir.resolve("large.pem"), large.toString());
+
+        DirConfigSource configSource = new DirConfigSource.Builder(dir.toFile())
+                .withMappedFileThreshold(1024)
+                .build();
+        assertEquals(pem, configSource.getValue("small.pem"));
+        assertEquals(large.substring(0, large.length() - 2), configSource.getValue("large.pem"));
+        assertEquals(configSource.getValue("large.pem"), configSource.getProperties().get("large.pem"));
+    }
+
+    @Test
+    public void testMappedFileTruncatedInPlace() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            large.append("0123456789");
+        }
+        write(dir.resolve("large"), large.toString());
+
+        DirConfigSource configSource = new DirConfigSource.Builder(dir.toFile())
+                .withMappedFileThreshold(1024)
+                .build();
+        // the file is truncated and rewritten while it is mapped
+        write(dir.resolve("large"), "short");
+        assertEquals("short", configSource.getValue("large"));
+    }
+
+    @Test
+    public void testLazyDir() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        write(dir.resolve("myKey1"), "myValue1");
+        write(dir.resolve("myKey2"), "myValue2");
+
+        DirConfigSource configSource = new DirConfigSource.Builder(dir.toFile())
+                .lazy(true)
+                .build();
+
+        // the files are only read when their values are requested
+        write(dir.resolve("myKey1"), "updated1");
+        assertEquals("updated1", configSource.getValue("myKey1"));
+        write(dir.resolve("myKey1"), "updated again");
+        assertEquals("updated1", configSource.getValue("myKey1"));
+
+        write(dir.resolve("myKey2"), "updated2");
+        assertEquals("updated2", configSource.getProperties().get("myKey2"));
+    }
+
+    @Test
+    public void testLazyDirRetriesFailedReadOnRefresh() throws Exception {
+        Path dir = tmp.newFolder().toPath();
+        Path file = dir.resolve("myKey");
+        write(file, "myValue");
+
+        DirConfigSource configSource = new DirConfigSource.Builder(dir.toFile())
+                .lazy(true)
+                .build();
+
+        // the file is moved away and back: its fingerprint is unchanged
+        Path moved = tmp.newFolder().toPath().resolve("myKey");
+        Files.move(file, moved);
+        assertNull(configSource.getValue("myKey"));
+        Files.move(moved, file);
+        // the failed read is recorded until the next refresh
+        assertNull(configSource.getValue("myKey"));
+        assertEquals(1, configSource.refresh());
+        assertEquals("myValue", configSource.getValue("myKey"));
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes("UTF-8"));
+    }
+
+    private static void awaitValue(DirConfigSource configSource, String key, String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!Objects.equals(expected, configSource.getValue(key)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, configSource.getValue(key));
+    }
 }
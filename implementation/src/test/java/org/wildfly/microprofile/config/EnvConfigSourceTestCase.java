@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class EnvConfigSourceTestCase {
+
+    @Test
+    public void testMangledNames() {
+        Map<String, String> env = new HashMap<>();
+        env.put("exact.name", "exact");
+        env.put("sanitized_name", "sanitized");
+        env.put("UPPER_CASE_NAME", "upper");
+        env.put("both", "lower");
+        env.put("BOTH", "upper");
+        EnvConfigSource source = new EnvConfigSource(env);
+
+        assertEquals("exact", source.getValue("exact.name"));
+        assertEquals("sanitized", source.getValue("sanitized.name"));
+        assertEquals("upper", source.getValue("upper.case-name"));
+        assertEquals("lower", source.getValue("both"));
+        assertNull(source.getValue("missing.name"));
+        // lookups are remembered
+        assertEquals("upper", source.getValue("upper.case-name"));
+        assertNull(source.getValue("missing.name"));
+    }
+}
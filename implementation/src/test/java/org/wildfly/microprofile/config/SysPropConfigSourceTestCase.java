@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class SysPropConfigSourceTestCase {
+
+    @Test
+    public void testPropertiesAreCopiedOnlyWhenChanged() {
+        SysPropConfigSource source = new SysPropConfigSource();
+        String name = "SysPropConfigSourceTestCase." + System.nanoTime();
+
+        Map<String, String> properties = source.getProperties();
+        assertSame(properties, source.getProperties());
+        assertFalse(properties.containsKey(name));
+
+        System.setProperty(name, "foo");
+        try {
+            Map<String, String> updated = source.getProperties();
+            assertNotSame(properties, updated);
+            assertTrue(updated.containsKey(name));
+
+            System.setProperty(name, "bar");
+            assertEquals("bar", source.getValue(name));
+        } finally {
+            System.clearProperty(name);
+        }
+    }
+
+    @Test
+    public void testExpiredCopyIsReusedWhenUnchanged() throws InterruptedException {
+        SysPropConfigSource source = new SysPropConfigSource();
+
+        Map<String, String> properties = source.getProperties();
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(SysPropConfigSource.REFRESH_INTERVAL) + 100);
+        assertSame(properties, source.getProperties());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.microprofile.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.spi.ConfigBuilder;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WildFlyConfigProviderResolverTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRegisterAndReleaseConfig() {
+        WildFlyConfigProviderResolver resolver = new WildFlyConfigProviderResolver();
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+
+        Config config = resolver.getBuilder().build();
+        resolver.registerConfig(config, classLoader);
+        assertSame(config, resolver.getConfig(classLoader));
+
+        resolver.releaseConfig(config);
+        Config rebuilt = resolver.getConfig(classLoader);
+        assertNotSame(config, rebuilt);
+        assertSame(rebuilt, resolver.getConfig(classLoader));
+    }
+
+    @Test
+    public void testConfigIsBuiltOnceForConcurrentRequests() throws Exception {
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        AtomicInteger builds = new AtomicInteger();
+        WildFlyConfigProviderResolver resolver = new WildFlyConfigProviderResolver() {
+            @Override
+            public ConfigBuilder getBuilder() {
+                builds.incrementAndGet();
+                try {
+                    // leave time for the other threads to ask for the config while it is built
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getBuilder();
+            }
+        };
+
+        int threads = 8;
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Config>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return resolver.getConfig(classLoader);
+                }));
+            }
+            Config config = futures.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Config> future : futures) {
+                assertSame(config, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void testConfigCanBeRequestedWhileItIsBuilt() {
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        Config[] nested = new Config[1];
+        WildFlyConfigProviderResolver resolver = new WildFlyConfigProviderResolver() {
+            private boolean building;
+
+            @Override
+            public ConfigBuilder getBuilder() {
+                if (!building) {
+                    building = true;
+                    nested[0] = getConfig(classLoader);
+                }
+                return super.getBuilder();
+            }
+        };
+
+        Config config = resolver.getConfig(classLoader);
+        assertNotNull(nested[0]);
+        assertNotSame(config, nested[0]);
+        assertSame(config, resolver.getConfig(classLoader));
+    }
+
+    @Test
+    public void testDiscoveredSourcesAreReusedUntilConfigIsReleased() throws IOException {
+        File services = new File(folder.getRoot(), "META-INF/services");
+        services.mkdirs();
+        File serviceFile = new File(services, ConfigSource.class.getName());
+        Files.write(serviceFile.toPath(), DiscoveredConfigSource.class.getName().getBytes(StandardCharsets.UTF_8));
+        ClassLoader classLoader = new URLClassLoader(new URL[] {folder.getRoot().toURI().toURL()}, getClass().getClassLoader());
+
+        WildFlyConfigProviderResolver resolver = new WildFlyConfigProviderResolver();
+        Config config = resolver.getConfig(classLoader);
+        ConfigSource discovered = discovered(config);
+
+        // the class path is not scanned again but every build gets its own instances
+        Files.write(serviceFile.toPath(), new byte[0]);
+        Config other = resolver.getBuilder().forClassLoader(classLoader).addDiscoveredSources().build();
+        assertNotSame(discovered, discovered(other));
+
+        resolver.releaseConfig(config);
+        for (ConfigSource source : resolver.getConfig(classLoader).getConfigSources()) {
+            assertFalse(source instanceof DiscoveredConfigSource);
+        }
+    }
+
+    private static ConfigSource discovered(Config config) {
+        for (ConfigSource source : config.getConfigSources()) {
+            if (source instanceof DiscoveredConfigSource) {
+                return source;
+            }
+        }
+        throw new AssertionError("config source was not discovered");
+    }
+
+    public static class DiscoveredConfigSource implements ConfigSource {
+        @Override
+        public Map<String, String> getProperties() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public String getValue(String propertyName) {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return "discovered";
+        }
+    }
+}
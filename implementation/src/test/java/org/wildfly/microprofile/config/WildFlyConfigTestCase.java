@@ -0,0 +1,426 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.microprofile.config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.spi.ConfigSource;
+import org.eclipse.microprofile.config.spi.Converter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WildFlyConfigTestCase {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testSnapshotResolvesHighestOrdinal() {
+        Config config = new WildFlyConfigBuilder()
+                .snapshot()
+                .withSources(source("low", 100, "foo", "low", "bar", "low", "empty", "low"),
+                        source("high", 200, "foo", "high", "empty", ""))
+                .build();
+
+        assertEquals("high", config.getValue("foo", String.class));
+        assertEquals("low", config.getValue("bar", String.class));
+        // empty values are returned by getValue but skipped by getOptionalValue
+        assertEquals("", config.getValue("empty", String.class));
+        assertEquals("low", config.getOptionalValue("empty", String.class).get());
+        assertFalse(config.getOptionalValue("baz", String.class).isPresent());
+    }
+
+    @Test
+    public void testSnapshotMatchesMangledEnvironmentVariables() {
+        Map<String, String> env = new HashMap<>();
+        env.put("REVIEW_CHECK_VALUE", "fromEnv");
+        env.put("REVIEW_EMPTY", "");
+        EnvConfigSource envSource = new EnvConfigSource(env);
+        ConfigSource low = source("low", 100, "review.check-value", "low", "review.empty", "low", "review.other", "low");
+
+        WildFlyConfig config = (WildFlyConfig) new WildFlyConfigBuilder()
+                .withSources(envSource, low)
+                .build();
+        WildFlyConfig snapshot = (WildFlyConfig) new WildFlyConfigBuilder()
+                .snapshot()
+                .withSources(envSource, low)
+                .build();
+
+        for (String name : new String[] {"review.check-value", "review.empty", "review.other", "review.missing"}) {
+            assertEquals(name, config.getOptionalValue(name, String.class), snapshot.getOptionalValue(name, String.class));
+            assertEquals(name, config.getOptionalValue(config.key(name), String.class), snapshot.getOptionalValue(snapshot.key(name), String.class));
+        }
+        assertEquals("fromEnv", snapshot.getValue("review.check-value", String.class));
+        assertEquals("", snapshot.getValue("review.empty", String.class));
+        assertEquals("low", snapshot.getOptionalValue("review.empty", String.class).get());
+    }
+
+    @Test
+    public void testConversionCacheFollowsValueChanges() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("timeout", "PT1S");
+        Config config = new WildFlyConfigBuilder()
+                .withConversionCache(16)
+                .withSources(new MapConfigSource(properties))
+                .build();
+
+        Duration timeout = config.getValue("timeout", Duration.class);
+        assertSame(timeout, config.getValue("timeout", Duration.class));
+
+        properties.put("timeout", "PT2S");
+        Duration updated = config.getValue("timeout", Duration.class);
+        assertNotSame(timeout, updated);
+        assertEquals(Duration.ofSeconds(2), updated);
+    }
+
+    @Test
+    public void testPrimitiveAccessors() {
+        WildFlyConfig config = (WildFlyConfig) new WildFlyConfigBuilder()
+                .withSources(source("primitives", 100, "int", "42", "long", "9000000000", "double", "1.5", "boolean", "yes", "empty", ""))
+                .build();
+
+        assertEquals(42, config.getInt("int"));
+        assertEquals(9000000000L, config.getLong("long"));
+        assertEquals(1.5, config.getDouble("double"), 0);
+        assertTrue(config.getBoolean("boolean"));
+
+        assertEquals(7, config.getInt("empty", 7));
+        assertEquals(7L, config.getLong("missing", 7L));
+        assertEquals(7.0, config.getDouble("missing", 7.0), 0);
+        assertFalse(config.getBoolean("missing", false));
+    }
+
+    @Test
+    public void testPropertyNamesAreReusedUntilSourcesChange() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("foo", "1");
+        Config config = new WildFlyConfigBuilder()
+                .withSources(new MapConfigSource(properties), source("bar", 100, "bar", "2"))
+                .build();
+
+        Iterable<String> names = config.getPropertyNames();
+        assertSame(names, config.getPropertyNames());
+        assertEquals(2, ((Set<String>) names).size());
+
+        properties.put("baz", "3");
+        Set<String> updated = (Set<String>) config.getPropertyNames();
+        assertNotSame(names, updated);
+        assertTrue(updated.contains("baz"));
+    }
+
+    @Test
+    public void testPropertiesByPrefix() {
+        WildFlyConfig config = (WildFlyConfig) new WildFlyConfigBuilder()
+                .withSources(source("high", 200, "datasource.orders.url", "jdbc:h2:orders", "datasource.ordersArchive.url", "jdbc:h2:archive"),
+                        source("low", 100, "datasource.orders.url", "jdbc:h2:default", "datasource.orders.max-pool-size", "20",
+                                "datasource.customers.url", "jdbc:h2:customers", "datasource.orders", "orders"))
+                .build();
+
+        assertEquals(Arrays.asList("datasource.orders.max-pool-size", "datasource.orders.url"), config.getPropertyNames("datasource.orders."));
+        assertEquals(5, config.getPropertyNames("datasource.").size());
+        assertTrue(config.getPropertyNames("cache.").isEmpty());
+
+        Map<String, String> orders = config.getProperties("datasource.orders.");
+        assertEquals(2, orders.size());
+        assertEquals("jdbc:h2:orders", orders.get("datasource.orders.url"));
+        assertEquals("20", orders.get("datasource.orders.max-pool-size"));
+    }
+
+    @Test
+    public void testNegativeCacheIsInvalidatedWhenSourcesChange() throws InterruptedException {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("foo", "1");
+        Config config = new WildFlyConfigBuilder()
+                .withNegativeCache()
+                .withSources(new MapConfigSource(properties))
+                .build();
+
+        assertFalse(config.getOptionalValue("flag", Boolean.class).isPresent());
+
+        properties.put("flag", "true");
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(WildFlyConfig.NEGATIVE_CACHE_VALIDATION_INTERVAL) + 100);
+        assertTrue(config.getOptionalValue("flag", Boolean.class).get());
+    }
+
+    @Test
+    public void testNegativeCacheDoesNotReadLazyDirConfigSource() throws Exception {
+        File dir = tmp.newFolder();
+        Files.write(new File(dir, "foo").toPath(), "initial".getBytes(StandardCharsets.UTF_8));
+        DirConfigSource dirSource = new DirConfigSource.Builder(dir)
+                .lazy(true)
+                .build();
+        Config config = new WildFlyConfigBuilder()
+                .withNegativeCache()
+                .withSources(dirSource)
+                .build();
+
+        assertFalse(config.getOptionalValue("flag", Boolean.class).isPresent());
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(WildFlyConfig.NEGATIVE_CACHE_VALIDATION_INTERVAL) + 100);
+        assertFalse(config.getOptionalValue("flag", Boolean.class).isPresent());
+        // the validation of the negative cache has not read the file
+        Files.write(new File(dir, "foo").toPath(), "updated".getBytes(StandardCharsets.UTF_8));
+        assertEquals("updated", config.getValue("foo", String.class));
+
+        Files.write(new File(dir, "flag").toPath(), "true".getBytes(StandardCharsets.UTF_8));
+        dirSource.refresh();
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(WildFlyConfig.NEGATIVE_CACHE_VALIDATION_INTERVAL) + 100);
+        assertTrue(config.getOptionalValue("flag", Boolean.class).get());
+    }
+
+    @Test
+    public void testBooleanValues() {
+        WildFlyConfig config = (WildFlyConfig) new WildFlyConfigBuilder().build();
+        for (String value : new String[] {"true", "TRUE", "1", "yes", "Yes", "y", "Y", "on", "ON", "ja", "JA", "j", "J", "oui", "Oui"}) {
+            assertTrue(value, config.convert(value, Boolean.class));
+        }
+        for (String value : new String[] {"", "false", "0", "no", "n", "off", "nein", "non", "o", "tru", "truee", "yess", "oj"}) {
+            assertFalse(value, config.convert(value, Boolean.class));
+        }
+    }
+
+    @Test
+    public void testConfigKeys() {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("timeout", "PT1S");
+        properties.put("empty", "");
+        WildFlyConfig config = (WildFlyConfig) new WildFlyConfigBuilder()
+                .withConversionCache(16)
+                .withSources(new MapConfigSource(properties), source("low", 50, "empty", "fallback"))
+                .build();
+        WildFlyConfig snapshot = (WildFlyConfig) new WildFlyConfigBuilder()
+                .snapshot()
+                .withConversionCache(16)
+                .withSources(new MapConfigSource(properties), source("low", 50, "empty", "fallback"))
+                .build();
+
+        for (WildFlyConfig c : new WildFlyConfig[] {config, snapshot}) {
+            ConfigKey timeout = c.key("timeout");
+            Duration duration = c.getValue(timeout, Duration.class);
+            assertEquals(Duration.ofSeconds(1), duration);
+            assertSame(duration, c.getValue(timeout, Duration.class));
+            assertEquals("fallback", c.getOptionalValue(c.key("empty"), String.class).get());
+            assertFalse(c.getOptionalValue(c.key("missing"), String.class).isPresent());
+        }
+
+        ConfigKey timeout = config.key("timeout");
+        properties.put("timeout", "PT2S");
+        assertEquals(Duration.ofSeconds(2), config.getValue(timeout, Duration.class));
+        assertEquals(Duration.ofSeconds(1), snapshot.getValue(snapshot.key("timeout"), Duration.class));
+
+        try {
+            snapshot.getValue(timeout, Duration.class);
+            fail("the key was created by another config");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testNullClassLoaderFallsBackToSystemClassLoader() {
+        Config config = new WildFlyConfigBuilder()
+                .forClassLoader(null)
+                .addDefaultSources()
+                .addDiscoveredSources()
+                .addDiscoveredConverters()
+                .build();
+
+        List<ConfigSource> sources = new ArrayList<>();
+        config.getConfigSources().forEach(sources::add);
+        assertTrue(sources.contains(EnvConfigSource.INSTANCE));
+        assertTrue(sources.contains(SysPropConfigSource.INSTANCE));
+    }
+
+    @Test
+    public void testDefaultSourcesAreSharedAcrossClassLoaders() {
+        Config first = new WildFlyConfigBuilder()
+                .forClassLoader(new URLClassLoader(new URL[0]))
+                .addDefaultSources()
+                .build();
+        Config second = new WildFlyConfigBuilder()
+                .forClassLoader(new URLClassLoader(new URL[0]))
+                .addDefaultSources()
+                .build();
+
+        List<ConfigSource> firstSources = new ArrayList<>();
+        first.getConfigSources().forEach(firstSources::add);
+        List<ConfigSource> secondSources = new ArrayList<>();
+        second.getConfigSources().forEach(secondSources::add);
+        assertTrue(firstSources.contains(EnvConfigSource.INSTANCE));
+        assertTrue(firstSources.contains(SysPropConfigSource.INSTANCE));
+        assertEquals(firstSources, secondSources);
+    }
+
+    @Test
+    public void testImplicitConverters() {
+        Config config = new WildFlyConfigBuilder()
+                .withSources(source("implicit", 100, "unit", "SECONDS", "big", "12345678901234567890", "date", "2017-12-01",
+                        "color", "red", "path", "/tmp"))
+                .build();
+
+        assertEquals(TimeUnit.SECONDS, config.getValue("unit", TimeUnit.class));
+        assertEquals(new BigInteger("12345678901234567890"), config.getValue("big", BigInteger.class));
+        assertEquals(Color.valueOf("red"), config.getValue("color", Color.class));
+        assertEquals(new File("/tmp"), config.getValue("path", File.class));
+
+        try {
+            config.getValue("unit", Object.class);
+            fail("Object can not be converted");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            config.getValue("path", TimeUnit.class);
+            fail("/tmp is not a TimeUnit");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testArraysAndLists() {
+        WildFlyConfig config = (WildFlyConfig) new WildFlyConfigBuilder()
+                .withSources(source("arrays", 100, "hosts", "alpha,,beta\\,gamma,delta\\\\", "ports", "8080,8443,9990",
+                        "flags", "true,off", "units", "SECONDS,MINUTES", "empty", ","))
+                .build();
+
+        assertArrayEquals(new String[] {"alpha", "beta,gamma", "delta\\"}, config.getValue("hosts", String[].class));
+        assertArrayEquals(new int[] {8080, 8443, 9990}, config.getValue("ports", int[].class));
+        assertArrayEquals(new long[] {8080, 8443, 9990}, config.getValue("ports", long[].class));
+        assertTrue(Arrays.equals(new boolean[] {true, false}, config.getValue("flags", boolean[].class)));
+        assertArrayEquals(new float[] {8080, 8443, 9990}, config.getValue("ports", float[].class), 0);
+        assertEquals(Arrays.asList(TimeUnit.SECONDS, TimeUnit.MINUTES), config.getValues("units", TimeUnit.class));
+        assertEquals(Arrays.asList(8080, 8443, 9990), config.getOptionalValues("ports", Integer.class).get());
+        assertEquals(0, config.getValue("empty", String[].class).length);
+        assertFalse(config.getOptionalValues("missing", String.class).isPresent());
+    }
+
+    @Test
+    public void testRegisteredConvertersAreUsedOnlyByTheirConfig() {
+        ConfigSource source = source("hex", 100, "port", "1f90", "ports", "1f90,20fb");
+        WildFlyConfig hex = (WildFlyConfig) new WildFlyConfigBuilder()
+                .withConverters(new Converter[] {new HexConverter()})
+                .withSources(source)
+                .build();
+        WildFlyConfig decimal = (WildFlyConfig) new WildFlyConfigBuilder()
+                .withSources(source("decimal", 100, "port", "8080", "ports", "8080,8443"))
+                .build();
+
+        assertEquals(Integer.valueOf(8080), hex.getValue("port", Integer.class));
+        assertEquals(8080, hex.getInt("port"));
+        // the converter of the boxed type also converts the primitive type and its arrays
+        assertEquals(Integer.valueOf(8080), hex.getValue("port", int.class));
+        assertEquals(8080, hex.getInt("missing", 8080));
+        assertArrayEquals(new Integer[] {8080, 8443}, hex.getValue("ports", Integer[].class));
+        assertArrayEquals(new int[] {8080, 8443}, hex.getValue("ports", int[].class));
+        assertEquals(Integer.valueOf(8080), decimal.getValue("port", Integer.class));
+        assertEquals(8080, decimal.getInt("port"));
+        assertArrayEquals(new Integer[] {8080, 8443}, decimal.getValue("ports", Integer[].class));
+        assertArrayEquals(new int[] {8080, 8443}, decimal.getValue("ports", int[].class));
+    }
+
+    public static class HexConverter implements Converter<Integer> {
+        @Override
+        public Integer convert(String value) {
+            return Integer.valueOf(value, 16);
+        }
+    }
+
+    public static final class Color {
+        private final String name;
+
+        private Color(String name) {
+            this.name = name;
+        }
+
+        public static Color parse(CharSequence name) {
+            return new Color(name.toString());
+        }
+
+        public static Color valueOf(String name) {
+            return new Color(name);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Color && name.equals(((Color) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+
+    static PropertiesConfigSource source(String name, int ordinal, String... keyValues) {
+        Map<String, String> properties = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.put(keyValues[i], keyValues[i + 1]);
+        }
+        return new PropertiesConfigSource(properties, name, ordinal);
+    }
+
+    /**
+     * Config source backed by a map that can be modified by the tests.
+     */
+    static class MapConfigSource implements ConfigSource {
+        private final Map<String, String> properties;
+
+        MapConfigSource(Map<String, String> properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public String getValue(String name) {
+            return properties.get(name);
+        }
+
+        @Override
+        public String getName() {
+            return "MapConfigSource";
+        }
+    }
+}
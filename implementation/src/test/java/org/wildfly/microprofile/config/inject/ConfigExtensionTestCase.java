@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.microprofile.config.PropertiesConfigSource;
+
+public class ConfigExtensionTestCase {
+
+    private static final String DEFAULT_KEY = Injected.class.getCanonicalName() + ".unnamed";
+
+    private ClassLoader tccl;
+    private Config config;
+
+    @Before
+    public void registerConfig() {
+        tccl = Thread.currentThread().getContextClassLoader();
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        config = ConfigProviderResolver.instance().getBuilder()
+                .withSources(new PropertiesConfigSource(Collections.singletonMap(DEFAULT_KEY, "default-keyed"), "test", 100))
+                .build();
+        ConfigProviderResolver.instance().registerConfig(config, classLoader);
+        Thread.currentThread().setContextClassLoader(classLoader);
+    }
+
+    @After
+    public void releaseConfig() {
+        Thread.currentThread().setContextClassLoader(tccl);
+        ConfigProviderResolver.instance().releaseConfig(config);
+    }
+
+    @Test
+    public void testDefaultKeyIsComputedWhenInjectionPointIsProcessed() throws Exception {
+        Field field = Injected.class.getDeclaredField("unnamed");
+        ConfigExtension extension = new ConfigExtension();
+        extension.collectConfigProducer(InjectionPoints.processed(InjectionPoints.of(field)));
+
+        // the key is found with the member even if it can no longer be computed from the injection point
+        InjectionPoint injectionPoint = InjectionPoints.withoutDeclaringType(field);
+        assertEquals(DEFAULT_KEY, extension.getKey(injectionPoint, field.getAnnotation(ConfigProperty.class)));
+        try {
+            ConfigExtension.getConfigKey(injectionPoint, field.getAnnotation(ConfigProperty.class));
+            fail("the default key can not be computed without the declaring type");
+        } catch (IllegalStateException e) {
+        }
+    }
+
+    @Test
+    public void testKeyOfUnprocessedInjectionPoint() throws Exception {
+        ConfigExtension extension = new ConfigExtension();
+
+        Field unnamed = Injected.class.getDeclaredField("unnamed");
+        assertEquals(DEFAULT_KEY, extension.getKey(InjectionPoints.of(unnamed), unnamed.getAnnotation(ConfigProperty.class)));
+
+        Field named = Injected.class.getDeclaredField("named");
+        assertEquals("named", extension.getKey(InjectionPoints.of(named), named.getAnnotation(ConfigProperty.class)));
+    }
+
+    @Test
+    public void testProducerUsesDefaultKeyOfExtension() throws Exception {
+        Field field = Injected.class.getDeclaredField("unnamed");
+        ConfigExtension extension = new ConfigExtension();
+        extension.collectConfigProducer(InjectionPoints.processed(InjectionPoints.of(field)));
+
+        ConfigProducer producer = new ConfigProducer();
+        Field injected = ConfigProducer.class.getDeclaredField("extension");
+        injected.setAccessible(true);
+        injected.set(producer, extension);
+
+        assertEquals("default-keyed", producer.produceStringConfigProperty(InjectionPoints.withoutDeclaringType(field)));
+    }
+
+    @Test
+    public void testInjectionBeanUsesDefaultKeyOfExtension() throws Exception {
+        Field field = Injected.class.getDeclaredField("unnamed");
+        ConfigExtension extension = new ConfigExtension();
+        extension.collectConfigProducer(InjectionPoints.processed(InjectionPoints.of(field)));
+
+        InjectionPoint injectionPoint = InjectionPoints.withoutDeclaringType(field);
+        ConfigInjectionBean<String> bean = new ConfigInjectionBean<>(InjectionPoints.beanManager(injectionPoint), String.class, extension);
+        assertEquals("default-keyed", bean.create(null));
+    }
+
+    static class Injected {
+        @ConfigProperty
+        String unnamed;
+
+        @ConfigProperty(name = "named")
+        String named;
+    }
+}
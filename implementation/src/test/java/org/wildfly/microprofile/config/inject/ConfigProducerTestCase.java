@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.inject;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.config.spi.ConfigProviderResolver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.microprofile.config.PropertiesConfigSource;
+
+public class ConfigProducerTestCase {
+
+    private ClassLoader tccl;
+    private Config config;
+
+    @Before
+    public void registerConfig() {
+        tccl = Thread.currentThread().getContextClassLoader();
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        Map<String, String> properties = new HashMap<>();
+        properties.put("list", "a,b,a");
+        properties.put("set", "3,1,3,2");
+        config = ConfigProviderResolver.instance().getBuilder()
+                .withSources(new PropertiesConfigSource(properties, "test", 100))
+                .build();
+        ConfigProviderResolver.instance().registerConfig(config, classLoader);
+        Thread.currentThread().setContextClassLoader(classLoader);
+    }
+
+    @After
+    public void releaseConfig() {
+        Thread.currentThread().setContextClassLoader(tccl);
+        ConfigProviderResolver.instance().releaseConfig(config);
+    }
+
+    @Test
+    public void testProduceList() throws Exception {
+        ConfigProducer producer = new ConfigProducer();
+        List<String> list = producer.produceListConfigProperty(InjectionPoints.of(Injected.class.getDeclaredField("list")));
+        assertEquals(Arrays.asList("a", "b", "a"), list);
+    }
+
+    @Test
+    public void testProduceSet() throws Exception {
+        ConfigProducer producer = new ConfigProducer();
+        Set<Integer> set = producer.produceSetConfigProperty(InjectionPoints.of(Injected.class.getDeclaredField("set")));
+        // the items are converted to the type argument of the set and keep the order of the value
+        assertEquals(Arrays.asList(3, 1, 2), Arrays.asList(set.toArray()));
+    }
+
+    @Test
+    public void testProduceListFromDefaultValue() throws Exception {
+        ConfigProducer producer = new ConfigProducer();
+        List<String> list = producer.produceListConfigProperty(InjectionPoints.of(Injected.class.getDeclaredField("missingWithDefault")));
+        assertEquals(Arrays.asList("x", "y"), list);
+    }
+
+    @Test
+    public void testListsAndSetsAreValidatedAsArrays() throws Exception {
+        ConfigExtension extension = new ConfigExtension();
+        for (String name : new String[]{"list", "set", "missing", "missingWithDefault"}) {
+            Field field = Injected.class.getDeclaredField(name);
+            extension.collectConfigProducer(InjectionPoints.processed(InjectionPoints.of(field)));
+        }
+
+        Set<Throwable> problems = new HashSet<>();
+        extension.validate(InjectionPoints.afterDeploymentValidation(problems), null);
+
+        assertEquals(1, problems.size());
+        String message = problems.iterator().next().getMessage();
+        assertTrue(message, message.endsWith("\nNo Config Value exists for missing"));
+    }
+
+    static class Injected {
+        @ConfigProperty(name = "list")
+        List<String> list;
+
+        @ConfigProperty(name = "set")
+        Set<Integer> set;
+
+        @ConfigProperty(name = "missing")
+        List<String> missing;
+
+        @ConfigProperty(name = "missing", defaultValue = "x,y")
+        List<String> missingWithDefault;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.microprofile.config.inject;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Set;
+
+import javax.enterprise.inject.spi.AfterDeploymentValidation;
+import javax.enterprise.inject.spi.Annotated;
+import javax.enterprise.inject.spi.AnnotatedField;
+import javax.enterprise.inject.spi.AnnotatedType;
+import javax.enterprise.inject.spi.BeanManager;
+import javax.enterprise.inject.spi.InjectionPoint;
+import javax.enterprise.inject.spi.ProcessInjectionPoint;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Stubs of the CDI container objects seen by the config extension and producers, built from the fields of the tests.
+ */
+final class InjectionPoints {
+
+    private InjectionPoints() {
+    }
+
+    /**
+     * @return an injection point of the field, qualified with its {@code @ConfigProperty}
+     */
+    static InjectionPoint of(Field field) {
+        AnnotatedType<?> declaringType = stub(AnnotatedType.class, (proxy, method, args) ->
+                method.getName().equals("getJavaClass") ? field.getDeclaringClass() : null);
+        AnnotatedField<?> annotated = stub(AnnotatedField.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getJavaMember":
+                    return field;
+                case "getDeclaringType":
+                    return declaringType;
+                default:
+                    return annotated(field, method.getName(), args);
+            }
+        });
+        return injectionPoint(field, annotated);
+    }
+
+    /**
+     * @return an injection point of the field whose annotated element does not expose the field nor its declaring type
+     */
+    static InjectionPoint withoutDeclaringType(Field field) {
+        Annotated annotated = stub(Annotated.class, (proxy, method, args) -> annotated(field, method.getName(), args));
+        return injectionPoint(field, annotated);
+    }
+
+    static ProcessInjectionPoint<?, ?> processed(InjectionPoint injectionPoint) {
+        return stub(ProcessInjectionPoint.class, (proxy, method, args) ->
+                method.getName().equals("getInjectionPoint") ? injectionPoint : null);
+    }
+
+    /**
+     * @return a bean manager whose only bean reference is the injection point
+     */
+    static BeanManager beanManager(InjectionPoint injectionPoint) {
+        return stub(BeanManager.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getBeans":
+                    return Collections.emptySet();
+                case "getReference":
+                    return injectionPoint;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * @return a validation event that adds its deployment problems to the set
+     */
+    static AfterDeploymentValidation afterDeploymentValidation(Set<Throwable> problems) {
+        return stub(AfterDeploymentValidation.class, (proxy, method, args) -> {
+            if (method.getName().equals("addDeploymentProblem")) {
+                problems.add((Throwable) args[0]);
+            }
+            return null;
+        });
+    }
+
+    private static InjectionPoint injectionPoint(Field field, Annotated annotated) {
+        return stub(InjectionPoint.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getType":
+                    return field.getGenericType();
+                case "getQualifiers":
+                    return Collections.singleton(field.getAnnotation(ConfigProperty.class));
+                case "getMember":
+                    return field;
+                case "getAnnotated":
+                    return annotated;
+                case "isDelegate":
+                case "isTransient":
+                    return false;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private static Object annotated(Field field, String method, Object[] args) {
+        switch (method) {
+            case "getBaseType":
+                return field.getGenericType();
+            case "getAnnotation":
+                return field.getAnnotation((Class<? extends Annotation>) args[0]);
+            case "isAnnotationPresent":
+                return field.isAnnotationPresent((Class<? extends Annotation>) args[0]);
+            default:
+                return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InjectionPoints.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    return handler.invoke(proxy, method, args);
+            }
+        });
+    }
+}